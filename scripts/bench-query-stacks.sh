@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# 对比阻塞查询端（/api/users，Spring MVC + JPA）与响应式查询端（/api/reactive/users，R2DBC）在高并发下的表现
+#
+# 用法：先启动应用（可调小 Tomcat 线程数放大差异，例如 --server.tomcat.threads.max=50），再执行
+#   scripts/bench-query-stacks.sh [并发数列表] [每轮时长]
+#   scripts/bench-query-stacks.sh "50 200 1000" 30s
+#
+# 环境变量：
+#   BASE_URL  应用地址，默认 http://localhost:8080
+#   USERS     预先创建的用户数，默认 200，设为 0 跳过
+#
+# 需要安装 hey（https://github.com/rakyll/hey）。
+
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+USERS=${USERS:-200}
+CONCURRENCY=${1:-"50 200 1000"}
+DURATION=${2:-30s}
+
+command -v hey >/dev/null || { echo "未找到 hey，请先安装" >&2; exit 1; }
+
+if [ "$USERS" -gt 0 ]; then
+  echo "创建 $USERS 个用户..."
+  first_id=""
+  for i in $(seq 1 "$USERS"); do
+    response=$(curl -sf -X POST "$BASE_URL/api/command/users" \
+      -H 'Content-Type: application/json' \
+      -d "{\"username\":\"bench$i-$$\",\"email\":\"bench$i-$$@example.com\"}")
+    [ -z "$first_id" ] && first_id=$(echo "$response" | sed -n 's/.*"userId":"\([^"]*\)".*/\1/p')
+  done
+fi
+USER_ID=${USER_ID:-${first_id:-unknown}}
+
+run() {
+  local name=$1 url=$2 c=$3
+  echo "---- $name  c=$c  $url"
+  hey -z "$DURATION" -c "$c" "$url" | grep -E "Requests/sec|Average|Slowest|99%|Status code|\[[0-9]+\]" || true
+}
+
+for c in $CONCURRENCY; do
+  run "mvc-jpa  by-id " "$BASE_URL/api/users/$USER_ID" "$c"
+  run "r2dbc    by-id " "$BASE_URL/api/reactive/users/$USER_ID" "$c"
+  run "mvc-jpa  list  " "$BASE_URL/api/users" "$c"
+  run "r2dbc    list  " "$BASE_URL/api/reactive/users" "$c"
+done
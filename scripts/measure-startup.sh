@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# 对比默认 fat jar 与快速启动构建（Spring AOT + CDS + 懒加载）的启动耗时
+#
+# 用法：先执行 mvn -Pfast-startup package -DskipTests，再执行
+#   scripts/measure-startup.sh [每种模式的启动次数]
+#   scripts/measure-startup.sh 10
+#
+# 每次启动都是全新 JVM，等待日志出现 "Started EventBridgeApplication" 后记录 Spring 报告的
+# 启动耗时（Started ... in X seconds）和 JVM 进程运行时间（process running for Y），然后结束进程。
+# 第一次启动作为预热丢弃，结果取中位数。RabbitMQ 不可用时监听容器在后台重连，不影响测量。
+#
+# 环境变量：
+#   JAVA        java 可执行文件，默认 java
+#   TIMEOUT     单次启动最长等待秒数，默认 120
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-10}
+JAVA=${JAVA:-java}
+TIMEOUT=${TIMEOUT:-120}
+FAT_JAR=target/eventbridge-1.0.0-exec.jar
+APP_JAR=target/eventbridge-1.0.0.jar
+ARCHIVE=target/eventbridge.jsa
+
+for file in "$FAT_JAR" "$APP_JAR" "$ARCHIVE"; do
+  [ -f "$file" ] || { echo "未找到 $file，请先执行 mvn -Pfast-startup package -DskipTests" >&2; exit 1; }
+done
+
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+# 启动一次，输出 "<spring 启动秒数> <进程运行秒数>"
+start_once() {
+  "$@" --server.port=0 > "$LOG" 2>&1 &
+  local pid=$!
+  local waited=0
+  until grep -q "Started EventBridgeApplication" "$LOG"; do
+    if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge $((TIMEOUT * 10)) ]; then
+      kill "$pid" 2>/dev/null || true
+      echo "启动失败，日志：$LOG" >&2
+      tail -20 "$LOG" >&2
+      exit 1
+    fi
+    sleep 0.1
+    waited=$((waited + 1))
+  done
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  grep -a "Started EventBridgeApplication" "$LOG" \
+    | sed -n 's/.* in \([0-9.]*\) seconds (process running for \([0-9.]*\)).*/\1 \2/p'
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else printf "%.3f\n", (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+measure() {
+  local name=$1
+  shift
+  local spring=() process=()
+  start_once "$@" > /dev/null
+  for _ in $(seq 1 "$RUNS"); do
+    read -r s p < <(start_once "$@")
+    spring+=("$s")
+    process+=("$p")
+  done
+  printf "%-24s spring 中位数 %6ss   进程 中位数 %6ss   (%s 次)\n" "$name" \
+    "$(printf '%s\n' "${spring[@]}" | median)" "$(printf '%s\n' "${process[@]}" | median)" "$RUNS"
+}
+
+echo "测量启动耗时，每种模式 $RUNS 次..."
+measure "default (fat jar)" "$JAVA" -jar "$FAT_JAR"
+measure "lazy" "$JAVA" -jar "$APP_JAR" --spring.profiles.active=fast-startup
+measure "aot + cds + lazy" "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=error \
+  -Dspring.aot.enabled=true -jar "$APP_JAR" --spring.profiles.active=fast-startup
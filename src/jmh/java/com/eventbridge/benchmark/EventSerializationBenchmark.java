@@ -0,0 +1,76 @@
+package com.eventbridge.benchmark;
+
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.infrastructure.events.EventSerializer;
+import com.eventbridge.config.RabbitMQConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发布路径序列化对比：writeValueAsString + getBytes（旧）与 EventSerializer（新）
+ *
+ * mvn -Pbenchmark test-compile exec:exec
+ * 关注 gc.alloc.rate.norm（每次发布分配的字节数）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private EventSerializer eventSerializer;
+    private UserCreatedEvent event;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        eventSerializer = new EventSerializer(objectMapper);
+        event = new UserCreatedEvent("0c79756a-8b51-4bea-b0bb-d719d925a3f5", "benchmark-user",
+                "benchmark-user@example.com", LocalDateTime.now());
+        event.setPosition(42L);
+    }
+
+    @Benchmark
+    public Message stringThenBytes() throws IOException {
+        String body = objectMapper.writeValueAsString(event);
+        return message(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Message reusedBuffer() throws IOException {
+        return message(eventSerializer.serialize(event));
+    }
+
+    private Message message(byte[] body) {
+        return MessageBuilder.withBody(body)
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(RabbitMQConfig.AGGREGATE_ID_HEADER, event.getAggregateId())
+                .setHeader(RabbitMQConfig.EVENT_ID_HEADER, event.getEventId())
+                .setHeader(RabbitMQConfig.EVENT_TYPE_HEADER, event.getEventType())
+                .build();
+    }
+}
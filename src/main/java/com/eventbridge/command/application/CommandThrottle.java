@@ -0,0 +1,122 @@
+package com.eventbridge.command.application;
+
+import com.eventbridge.command.application.async.CommandRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命令端自适应限流（投影积压反压）
+ *
+ * 投影积压（事件日志最新位置 - 投影水位线）低于 throttle-lag 时不限流；
+ * 超过后按最近实测的投影吞吐乘以 drain-ratio 放行命令，写入速度略低于投影速度，积压逐步收敛；
+ * 积压达到 max-lag 时只放行 min-rate。放行速率随每次采样重新计算，系统最终稳定在投影可承受的吞吐上。
+ * 命令按速率均匀排队，需等待超过 max-wait-ms 的命令直接拒绝（429 + Retry-After）。
+ */
+@Component
+public class CommandThrottle {
+
+    @Value("${eventbridge.command.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${eventbridge.command.backpressure.throttle-lag:1000}")
+    private long throttleLag;
+
+    @Value("${eventbridge.command.backpressure.max-lag:10000}")
+    private long maxLag;
+
+    @Value("${eventbridge.command.backpressure.drain-ratio:0.9}")
+    private double drainRatio;
+
+    @Value("${eventbridge.command.backpressure.min-rate:5}")
+    private double minRate;
+
+    @Value("${eventbridge.command.backpressure.max-wait-ms:200}")
+    private long maxWaitMs;
+
+    /**
+     * 当前放行速率（命令/秒），0 表示不限流
+     */
+    private volatile double allowedRate;
+    private long nextFreeNanos;
+
+    /**
+     * 根据最新的投影积压和投影吞吐（事件/秒）调整放行速率
+     */
+    public void update(long lag, double projectionRate) {
+        double previous = allowedRate;
+        if (!enabled || lag < throttleLag) {
+            allowedRate = 0;
+        } else if (lag >= maxLag) {
+            allowedRate = minRate;
+        } else {
+            allowedRate = Math.max(minRate, projectionRate * drainRatio);
+        }
+        if (previous == 0 && allowedRate > 0) {
+            System.out.println("🐢 [COMMAND] 投影积压 " + lag + "，命令限流至 " + Math.round(allowedRate) + "/s");
+        } else if (previous > 0 && allowedRate == 0) {
+            System.out.println("🐇 [COMMAND] 投影积压已回落到 " + lag + "，解除命令限流");
+        }
+    }
+
+    /**
+     * 获取一个命令许可，必要时短暂等待
+     *
+     * @throws CommandRejectedException 等待时间超过 max-wait-ms
+     */
+    public void acquire() {
+        double rate = allowedRate;
+        if (rate <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            waitNanos = slot - now;
+            if (waitNanos > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+                long retryAfter = Math.max(1, (long) Math.ceil(waitNanos / 1_000_000_000.0));
+                throw new CommandRejectedException("投影积压，命令限流中: " + Math.round(rate) + "/s", retryAfter);
+            }
+            nextFreeNanos = slot + (long) (1_000_000_000L / rate);
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CommandRejectedException("命令限流等待被中断", 1);
+            }
+        }
+    }
+
+    /**
+     * 退还一个已获取的许可：拿到许可的命令最终没有执行（例如入队被拒绝）时调用
+     */
+    public void refund() {
+        double rate = allowedRate;
+        if (rate <= 0) {
+            return;
+        }
+        synchronized (this) {
+            nextFreeNanos -= (long) (1_000_000_000L / rate);
+        }
+    }
+
+    public boolean isThrottling() {
+        return allowedRate > 0;
+    }
+
+    public double getAllowedRate() {
+        return allowedRate;
+    }
+
+    public long getThrottleLag() {
+        return throttleLag;
+    }
+
+    public long getMaxLag() {
+        return maxLag;
+    }
+}
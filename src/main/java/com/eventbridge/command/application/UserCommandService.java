@@ -6,9 +6,10 @@ import com.eventbridge.command.domain.model.User;
 import com.eventbridge.command.infrastructure.persistence.UserRepository;
 import com.eventbridge.command.application.commands.CreateUserCommand;
 import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.config.CommandDataSourceConfig;
 
 @Service
-@Transactional
+@Transactional(CommandDataSourceConfig.TRANSACTION_MANAGER)
 public class UserCommandService {
 
     private final UserRepository userRepository;
@@ -0,0 +1,157 @@
+package com.eventbridge.command.application.async;
+
+import com.eventbridge.command.application.CommandThrottle;
+import com.eventbridge.common.event.ConsistencyToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 异步命令执行器
+ *
+ * 命令按类型进入各自的有界队列，由固定数量的工作线程执行，请求线程只负责入队并立即返回 202。
+ * 准入控制在入队前完成：队列已满，或有命令在执行且数据库延迟（命令执行耗时的 EWMA）超过阈值时直接拒绝，
+ * 并根据积压量估算 Retry-After，避免请求在服务端排队直到超时；投影积压限流的许可也在入队前获取，入队失败时退还。
+ */
+@Component
+@ConditionalOnProperty(name = "eventbridge.command.async.enabled", havingValue = "true")
+public class AsyncCommandExecutor {
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    @Value("${eventbridge.command.async.workers:3}")
+    private int workers;
+
+    @Value("${eventbridge.command.async.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${eventbridge.command.async.max-db-latency-ms:500}")
+    private long maxDbLatencyMs;
+
+    @Value("${eventbridge.command.async.status-ttl-ms:600000}")
+    private long statusTtlMs;
+
+    private final Map<CommandType, ThreadPoolTaskExecutor> executors = new EnumMap<>(CommandType.class);
+    private final Map<String, CommandStatus> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double latencyEwmaMs;
+
+    private final CommandThrottle commandThrottle;
+
+    public AsyncCommandExecutor(CommandThrottle commandThrottle) {
+        this.commandThrottle = commandThrottle;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (CommandType type : CommandType.values()) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(workers);
+            executor.setMaxPoolSize(workers);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("Command-" + type.name().toLowerCase() + "-");
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            executor.initialize();
+            executors.put(type, executor);
+        }
+        System.out.println("⚙️ [COMMAND] 异步命令模式已启用，每类命令 " + workers + " 个工作线程，队列容量 " + queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    /**
+     * 提交命令，action 在工作线程的命令事务中执行，返回值记为命令结果
+     *
+     * @throws CommandRejectedException 准入控制拒绝
+     */
+    public CommandStatus submit(CommandType type, Supplier<String> action) {
+        ThreadPoolTaskExecutor executor = executors.get(type);
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        if (pool.getQueue().remainingCapacity() == 0) {
+            throw reject(type + " 命令队列已满", pool.getQueue().size());
+        }
+        if (inFlight.get() > 0 && latencyEwmaMs > maxDbLatencyMs) {
+            throw reject("数据库延迟过高: " + Math.round(latencyEwmaMs) + "ms", pool.getQueue().size());
+        }
+        // 投影积压限流同样在入队前判定，被拒绝的命令直接以 429 返回给客户端
+        commandThrottle.acquire();
+
+        CommandStatus status = new CommandStatus(UUID.randomUUID().toString(), type);
+        statuses.put(status.getCommandId(), status);
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(() -> run(status, action));
+        } catch (TaskRejectedException e) {
+            // 检查之后队列被并发请求占满，命令没有执行，退还限流许可
+            inFlight.decrementAndGet();
+            statuses.remove(status.getCommandId());
+            commandThrottle.refund();
+            throw reject(type + " 命令队列已满", pool.getQueue().size());
+        }
+        return status;
+    }
+
+    public Optional<CommandStatus> getStatus(String commandId) {
+        return Optional.ofNullable(statuses.get(commandId));
+    }
+
+    public double getLatencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    private void run(CommandStatus status, Supplier<String> action) {
+        status.running();
+        ConsistencyToken.clear();
+        long start = System.nanoTime();
+        try {
+            String result = action.get();
+            status.succeeded(result, ConsistencyToken.take());
+        } catch (RuntimeException e) {
+            System.out.println("❌ [COMMAND] 异步命令执行失败: " + status.getCommandId() + " - " + e.getMessage());
+            status.failed(e.getMessage());
+        } finally {
+            ConsistencyToken.clear();
+            recordLatency((System.nanoTime() - start) / 1_000_000.0);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private synchronized void recordLatency(double elapsedMs) {
+        latencyEwmaMs = latencyEwmaMs == 0 ? elapsedMs : EWMA_ALPHA * elapsedMs + (1 - EWMA_ALPHA) * latencyEwmaMs;
+    }
+
+    /**
+     * 按当前积压量和平均执行耗时估算多久之后重试
+     */
+    private CommandRejectedException reject(String reason, int queued) {
+        double drainMs = (queued + 1) * Math.max(latencyEwmaMs, 1) / workers;
+        long retryAfter = Math.max(1, (long) Math.ceil(drainMs / 1000));
+        System.out.println("🚫 [COMMAND] 拒绝命令: " + reason + "，建议 " + retryAfter + " 秒后重试");
+        return new CommandRejectedException(reason, retryAfter);
+    }
+
+    @Scheduled(fixedDelayString = "${eventbridge.command.async.status-ttl-ms:600000}")
+    public void evictCompleted() {
+        long expireBefore = System.currentTimeMillis() - statusTtlMs;
+        statuses.values().removeIf(status -> status.isDone() && status.getCompletedAt() < expireBefore);
+    }
+}
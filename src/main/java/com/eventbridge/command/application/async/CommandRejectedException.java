@@ -0,0 +1,17 @@
+package com.eventbridge.command.application.async;
+
+import lombok.Getter;
+
+/**
+ * 准入控制拒绝命令（队列已满或数据库延迟过高），由接口层转换为 429 + Retry-After
+ */
+@Getter
+public class CommandRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CommandRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
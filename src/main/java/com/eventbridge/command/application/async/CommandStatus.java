@@ -0,0 +1,54 @@
+package com.eventbridge.command.application.async;
+
+import lombok.Getter;
+
+/**
+ * 异步命令的执行状态，供 /api/command/commands/{commandId} 查询
+ * result 为命令返回值（创建用户时为用户 ID），consistencyToken 可直接用于随后的查询
+ */
+@Getter
+public class CommandStatus {
+
+    public enum State {
+        ACCEPTED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final String commandId;
+    private final CommandType type;
+    private final long acceptedAt;
+    private volatile State state = State.ACCEPTED;
+    private volatile String result;
+    private volatile String error;
+    private volatile Long consistencyToken;
+    private volatile long completedAt;
+
+    CommandStatus(String commandId, CommandType type) {
+        this.commandId = commandId;
+        this.type = type;
+        this.acceptedAt = System.currentTimeMillis();
+    }
+
+    void running() {
+        state = State.RUNNING;
+    }
+
+    void succeeded(String result, Long consistencyToken) {
+        this.result = result;
+        this.consistencyToken = consistencyToken;
+        this.completedAt = System.currentTimeMillis();
+        this.state = State.SUCCEEDED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.completedAt = System.currentTimeMillis();
+        this.state = State.FAILED;
+    }
+
+    boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+}
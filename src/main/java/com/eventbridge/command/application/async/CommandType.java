@@ -0,0 +1,10 @@
+package com.eventbridge.command.application.async;
+
+/**
+ * 异步命令类型，每种类型有独立的有界队列和工作线程，一类命令积压不会拖住其他命令
+ */
+public enum CommandType {
+    CREATE_USER,
+    UPDATE_EMAIL,
+    DEACTIVATE_USER
+}
@@ -7,4 +7,10 @@ public interface DomainEvent {
     String getAggregateId();
     Instant getOccurredOn();
     String getEventType();
+
+    /**
+     * 事件在事件日志中的全局位置，写入事件日志后才会被赋值
+     */
+    Long getPosition();
+    void setPosition(Long position);
 }
@@ -18,6 +18,7 @@ public class UserCreatedEvent implements DomainEvent {
     private final String email;
     private final LocalDateTime createdAt;
     private final Instant occurredOn;
+    private Long position;
 
 @JsonCreator
 public UserCreatedEvent(
@@ -14,6 +14,7 @@ public class UserDeactivatedEvent implements DomainEvent {
     private final String eventId;
     private final String userId;
     private final Instant occurredOn;
+    private Long position;
 
     // Jackson 反序列化构造方法
     @JsonCreator
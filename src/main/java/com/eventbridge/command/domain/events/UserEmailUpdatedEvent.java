@@ -14,6 +14,7 @@ public class UserEmailUpdatedEvent implements DomainEvent {
     private final String userId;
     private final String newEmail;
     private final Instant occurredOn;
+    private Long position;
 
     @JsonCreator
     public UserEmailUpdatedEvent(
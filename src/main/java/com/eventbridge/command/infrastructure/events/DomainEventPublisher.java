@@ -1,59 +1,141 @@
 package com.eventbridge.command.infrastructure.events;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.common.observation.EventTracing;
 import com.eventbridge.config.RabbitMQConfig;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class DomainEventPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private static final Object ENVELOPE_RESOURCE_KEY = new Object();
+
     private final ApplicationEventPublisher applicationEventPublisher;
-    private final ObjectMapper objectMapper;
+    private final EventSerializer eventSerializer;
+    private final EventStore eventStore;
+    private final PublisherConfirmTracker confirmTracker;
+    private final EventEnvelopeBatcher envelopeBatcher;
+    private final EventTracing eventTracing;
+
+    @Value("${eventbridge.rabbitmq.publisher.enabled:false}")
+    private boolean messageQueueEnabled;
+
+    @Value("${eventbridge.rabbitmq.publisher.envelope.enabled:false}")
+    private boolean envelopeEnabled;
 
-    public DomainEventPublisher(RabbitTemplate rabbitTemplate,
-                                ApplicationEventPublisher applicationEventPublisher,
-                                ObjectMapper objectMapper) {
-        this.rabbitTemplate = rabbitTemplate;
+    public DomainEventPublisher(ApplicationEventPublisher applicationEventPublisher,
+                                EventSerializer eventSerializer,
+                                EventStore eventStore,
+                                PublisherConfirmTracker confirmTracker,
+                                EventEnvelopeBatcher envelopeBatcher,
+                                EventTracing eventTracing) {
         this.applicationEventPublisher = applicationEventPublisher;
-        this.objectMapper = objectMapper;
+        this.eventSerializer = eventSerializer;
+        this.eventStore = eventStore;
+        this.confirmTracker = confirmTracker;
+        this.envelopeBatcher = envelopeBatcher;
+        this.eventTracing = eventTracing;
     }
 
     public void publish(DomainEvent event) {
+        eventTracing.observe(EventTracing.PUBLISH, event.getEventType(), () -> doPublish(event));
+    }
+
+    private void doPublish(DomainEvent event) {
+        // 追加到事件日志（与聚合写入同一事务），并获得事件位置
+        eventStore.append(event);
+        ConsistencyToken.record(event.getPosition());
+
         // 发布到本地应用事件
         applicationEventPublisher.publishEvent(event);
 
         // 发布到消息队列
-        //publishToMessageQueue(event);
+        if (messageQueueEnabled && envelopeEnabled) {
+            collectForEnvelope(event);
+        } else if (messageQueueEnabled) {
+            publishAfterCommit(event);
+        }
+    }
+
+    /**
+     * 单条消息模式：事务提交后再发送，回滚的事件不会发出；确认窗口满时的等待也不会发生在命令事务内
+     */
+    private void publishAfterCommit(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishToMessageQueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishToMessageQueue(event);
+            }
+        });
+    }
+
+    /**
+     * 信封模式：收集当前事务产生的所有事件，事务提交后整体交给批量发送器，回滚的事件不会发出
+     */
+    @SuppressWarnings("unchecked")
+    private void collectForEnvelope(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            envelopeBatcher.enqueue(List.of(event));
+            return;
+        }
+        List<DomainEvent> events = (List<DomainEvent>) TransactionSynchronizationManager.getResource(ENVELOPE_RESOURCE_KEY);
+        if (events == null) {
+            List<DomainEvent> transactionEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(ENVELOPE_RESOURCE_KEY, transactionEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    envelopeBatcher.enqueue(transactionEvents);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ENVELOPE_RESOURCE_KEY);
+                }
+            });
+            events = transactionEvents;
+        }
+        events.add(event);
     }
 
     private void publishToMessageQueue(DomainEvent event) {
         String routingKey = getRoutingKey(event);
 
-        // 创建一个不包含类型信息的消息
-        String messageBody;
+        // 创建一个不包含类型信息的消息，直接序列化为字节
+        byte[] messageBody;
         try {
-            // 手动序列化，不包含类型信息
-            messageBody = objectMapper.writeValueAsString(event);
+            messageBody = eventSerializer.serialize(event);
         } catch (Exception e) {
             System.err.println("❌ 序列化事件失败: " + e.getMessage());
             return;
         }
 
         Message message = MessageBuilder
-                .withBody(messageBody.getBytes(StandardCharsets.UTF_8))
+                .withBody(messageBody)
                 .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(RabbitMQConfig.AGGREGATE_ID_HEADER, event.getAggregateId())
+                .setHeader(RabbitMQConfig.EVENT_ID_HEADER, event.getEventId())
+                .setHeader(RabbitMQConfig.EVENT_TYPE_HEADER, event.getEventType())
                 .build();
 
-        rabbitTemplate.send(RabbitMQConfig.DOMAIN_EVENTS_EXCHANGE, routingKey, message);
+        // 不等待 broker 确认，由 PublisherConfirmTracker 在后台跟踪 ack/nack 并重发
+        confirmTracker.send(event.getEventId(), RabbitMQConfig.DOMAIN_EVENTS_EXCHANGE, routingKey, message)
+                .thenRun(() -> System.out.println("✅ [COMMAND] RabbitMQ 已确认: " + event.getEventType() + " - " + event.getEventId()));
 
         System.out.println("📤 [COMMAND] 发布到 RabbitMQ: " + event.getEventType() + " - " + event.getAggregateId());
     }
@@ -0,0 +1,117 @@
+package com.eventbridge.command.infrastructure.events;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.common.event.EventEnvelope;
+import com.eventbridge.config.RabbitMQConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 信封批量发送
+ *
+ * 已提交事务的事件先进入缓冲区，累计 max-events 个或等待 linger-ms 后打包为一个信封发送；
+ * 同一事务的事件总是整体进入缓冲区，保持在同一个信封内且顺序不变（分区模式下按聚合拆分）。
+ */
+@Component
+public class EventEnvelopeBatcher {
+
+    public static final String ENVELOPE_ROUTING_KEY = "user.envelope";
+
+    private final ObjectMapper objectMapper;
+    private final PublisherConfirmTracker confirmTracker;
+
+    @Value("${eventbridge.rabbitmq.publisher.envelope.max-events:100}")
+    private int maxEvents;
+
+    @Value("${eventbridge.rabbitmq.publisher.envelope.compression-threshold-bytes:1024}")
+    private int compressionThreshold;
+
+    @Value("${eventbridge.rabbitmq.partitions.enabled:false}")
+    private boolean partitioned;
+
+    private List<DomainEvent> buffer = new ArrayList<>();
+
+    public EventEnvelopeBatcher(ObjectMapper objectMapper, PublisherConfirmTracker confirmTracker) {
+        this.objectMapper = objectMapper;
+        this.confirmTracker = confirmTracker;
+    }
+
+    public void enqueue(List<DomainEvent> events) {
+        List<DomainEvent> full = null;
+        synchronized (this) {
+            buffer.addAll(events);
+            if (buffer.size() >= maxEvents) {
+                full = drain();
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eventbridge.rabbitmq.publisher.envelope.linger-ms:20}")
+    public void flush() {
+        List<DomainEvent> events;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            events = drain();
+        }
+        send(events);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private List<DomainEvent> drain() {
+        List<DomainEvent> events = buffer;
+        buffer = new ArrayList<>();
+        return events;
+    }
+
+    private void send(List<DomainEvent> events) {
+        if (!partitioned) {
+            send(events, null);
+            return;
+        }
+        // 分区模式按聚合 ID 路由，一个信封只能包含同一聚合的事件
+        Map<String, List<DomainEvent>> byAggregate = new LinkedHashMap<>();
+        for (DomainEvent event : events) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event);
+        }
+        byAggregate.forEach((aggregateId, aggregateEvents) -> send(aggregateEvents, aggregateId));
+    }
+
+    private void send(List<DomainEvent> events, String aggregateId) {
+        Message message;
+        try {
+            message = EventEnvelope.pack(events, objectMapper, compressionThreshold);
+        } catch (Exception e) {
+            System.err.println("❌ 序列化事件信封失败: " + e.getMessage());
+            return;
+        }
+        String envelopeId = UUID.randomUUID().toString();
+        message.getMessageProperties().setMessageId(envelopeId);
+        if (aggregateId != null) {
+            message.getMessageProperties().setHeader(RabbitMQConfig.AGGREGATE_ID_HEADER, aggregateId);
+        }
+        confirmTracker.send(envelopeId, RabbitMQConfig.DOMAIN_EVENTS_EXCHANGE, ENVELOPE_ROUTING_KEY, message);
+
+        System.out.println("📦 [COMMAND] 发布事件信封到 RabbitMQ: " + events.size() + " 个事件, "
+                + message.getBody().length + " bytes"
+                + (message.getMessageProperties().getContentEncoding() != null ? " (lz4)" : ""));
+    }
+}
@@ -0,0 +1,58 @@
+package com.eventbridge.command.infrastructure.events;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 发布路径上的事件序列化
+ *
+ * 每个事件类缓存一个 ObjectWriter，事件直接写入当前线程复用的字节缓冲区，
+ * 最后只复制一次得到消息体，不再经过 String 和 getBytes 的两次中间拷贝。
+ * 单个事件超过 MAX_RETAINED_BUFFER_SIZE 时缓冲区用完即丢弃，避免线程长期持有大数组。
+ */
+@Component
+public class EventSerializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ThreadLocal<ReusableBuffer> buffers = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    public EventSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 序列化为 JSON 字节，返回的数组归调用方所有（可直接作为 AMQP 消息体，重发时也不会被覆盖）
+     */
+    public byte[] serialize(DomainEvent event) throws IOException {
+        ObjectWriter writer = writers.computeIfAbsent(event.getClass(), objectMapper::writerFor);
+        ReusableBuffer buffer = buffers.get();
+        buffer.reset();
+        writer.writeValue(buffer, event);
+        byte[] body = buffer.toByteArray();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+        }
+        return body;
+    }
+
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+        private ReusableBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+}
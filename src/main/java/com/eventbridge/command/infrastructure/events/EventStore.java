@@ -0,0 +1,127 @@
+package com.eventbridge.command.infrastructure.events;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.infrastructure.persistence.StoredEvent;
+import com.eventbridge.command.infrastructure.persistence.StoredEventRepository;
+import com.eventbridge.common.event.DomainEventTypes;
+import com.eventbridge.config.CommandDataSourceConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 命令端事件日志
+ *
+ * 领域事件与聚合在同一事务中追加到 domain_event_log，获得单调递增的全局位置。
+ * 查询端通过位置记录投影进度，并在重启或重建时从指定位置回放事件。
+ */
+@Service
+@Transactional(CommandDataSourceConfig.TRANSACTION_MANAGER)
+public class EventStore {
+
+    private final StoredEventRepository storedEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public EventStore(StoredEventRepository storedEventRepository, ObjectMapper objectMapper) {
+        this.storedEventRepository = storedEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 追加事件并回填事件位置
+     */
+    public long append(DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (Exception e) {
+            throw new IllegalStateException("序列化事件失败: " + event.getEventType(), e);
+        }
+
+        StoredEvent stored = storedEventRepository.save(new StoredEvent(
+                event.getEventId(),
+                event.getEventType(),
+                event.getAggregateId(),
+                payload,
+                event.getOccurredOn()
+        ));
+        event.setPosition(stored.getPosition());
+        return stored.getPosition();
+    }
+
+    /**
+     * 读取指定位置之后的事件（不含该位置），按位置升序
+     * 无法解码的记录（未知事件类型或反序列化失败）不会被静默丢弃，而是带着原始位置单独返回，由调用方显式跳过或搁置
+     */
+    @Transactional(transactionManager = CommandDataSourceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public EventPage readAfter(long position, int limit) {
+        List<StoredEvent> stored = storedEventRepository.findByPositionGreaterThanOrderByPositionAsc(
+                position, PageRequest.of(0, limit));
+
+        List<DomainEvent> events = new ArrayList<>(stored.size());
+        List<UndecodableEvent> undecodable = new ArrayList<>();
+        long lastPosition = position;
+        for (StoredEvent storedEvent : stored) {
+            lastPosition = storedEvent.getPosition();
+            try {
+                events.add(decode(storedEvent));
+            } catch (Exception e) {
+                System.err.println("❌ [EVENT-STORE] 无法解码事件 (position=" + storedEvent.getPosition() + "): " + e.getMessage());
+                undecodable.add(new UndecodableEvent(storedEvent.getPosition(), storedEvent.getEventId(),
+                        storedEvent.getEventType(), storedEvent.getAggregateId(), e.getMessage()));
+            }
+        }
+        return new EventPage(events, undecodable, lastPosition);
+    }
+
+    /**
+     * 当前已提交的最新事件位置，事件日志为空时返回 0
+     */
+    @Transactional(transactionManager = CommandDataSourceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public long getHeadPosition() {
+        return storedEventRepository.findHeadPosition();
+    }
+
+    /**
+     * 检查位置区间 [from, to] 内是否存在已提交的事件
+     */
+    @Transactional(transactionManager = CommandDataSourceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public boolean existsBetween(long from, long to) {
+        return from <= to && storedEventRepository.existsByPositionBetween(from, to);
+    }
+
+    private DomainEvent decode(StoredEvent storedEvent) throws IOException {
+        Class<? extends DomainEvent> eventClass = DomainEventTypes.resolve(storedEvent.getEventType());
+        if (eventClass == null) {
+            throw new IOException("未知的事件类型: " + storedEvent.getEventType());
+        }
+        DomainEvent event = objectMapper.readValue(storedEvent.getPayload(), eventClass);
+        event.setPosition(storedEvent.getPosition());
+        return event;
+    }
+
+    /**
+     * 一页事件日志记录
+     *
+     * @param events       可解码的事件，按位置升序
+     * @param undecodable  无法解码的记录
+     * @param lastPosition 本页最后一条记录的位置（含无法解码的记录），页为空时为读取起点
+     */
+    public record EventPage(List<DomainEvent> events, List<UndecodableEvent> undecodable, long lastPosition) {
+
+        public boolean isEmpty() {
+            return events.isEmpty() && undecodable.isEmpty();
+        }
+    }
+
+    /**
+     * 无法解码的事件日志记录
+     */
+    public record UndecodableEvent(long position, String eventId, String eventType, String aggregateId, String error) {
+    }
+}
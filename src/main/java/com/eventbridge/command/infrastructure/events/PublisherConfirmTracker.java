@@ -0,0 +1,181 @@
+package com.eventbridge.command.infrastructure.events;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.eventbridge.common.jfr.RetryJfrEvent;
+import com.eventbridge.config.RabbitMQConfig;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发布确认跟踪器（流水线式 publisher confirms）
+ *
+ * 每条消息以事件 ID 作为 CorrelationData 发送，不等待确认即返回；
+ * 未确认的消息保存在有界窗口中：ack 时完成对应的 future，nack 或超时未确认时重发，
+ * 超过最大尝试次数后以异常完成。窗口已满时发送方阻塞（背压），等待超时则抛出 AmqpTimeoutException。
+ */
+@Component
+public class PublisherConfirmTracker {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${eventbridge.rabbitmq.publisher.confirm-window:256}")
+    private int confirmWindow;
+
+    @Value("${eventbridge.rabbitmq.publisher.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${eventbridge.rabbitmq.publisher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${eventbridge.rabbitmq.publisher.backpressure-timeout-ms:5000}")
+    private long backpressureTimeoutMs;
+
+    private Semaphore window;
+    private final Map<String, Pending> outstanding = new ConcurrentHashMap<>();
+
+    public PublisherConfirmTracker(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        window = new Semaphore(confirmWindow);
+    }
+
+    /**
+     * 发送消息并跟踪 broker 确认
+     *
+     * @return broker ack 后完成的 future
+     */
+    public CompletableFuture<Void> send(String eventId, String exchange, String routingKey, Message message) {
+        Pending existing = outstanding.get(eventId);
+        if (existing != null) {
+            return existing.future;
+        }
+        try {
+            if (!window.tryAcquire(backpressureTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new AmqpTimeoutException("等待发布确认窗口超时，未确认消息数: " + outstanding.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpTimeoutException("等待发布确认窗口时被中断", e);
+        }
+
+        Pending pending = new Pending(eventId, exchange, routingKey, message);
+        outstanding.put(eventId, pending);
+        transmit(pending, pending.nextAttempt());
+        return pending.future;
+    }
+
+    /**
+     * 重发超时未确认的消息
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.rabbitmq.publisher.confirm-check-interval-ms:1000}")
+    public void resendExpired() {
+        long now = System.currentTimeMillis();
+        outstanding.values().forEach(pending -> {
+            if (now - pending.sentAt >= confirmTimeoutMs) {
+                retry(pending, pending.attempts, "确认超时");
+            }
+        });
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    private void transmit(Pending pending, int attempt) {
+        CorrelationData correlationData = new CorrelationData(pending.eventId);
+        correlationData.getFuture().whenComplete((confirm, ex) -> {
+            if (ex == null && confirm.isAck()) {
+                acknowledge(pending, attempt);
+            } else {
+                retry(pending, attempt, ex != null ? ex.getMessage() : confirm.getReason());
+            }
+        });
+        try {
+            rabbitTemplate.send(pending.exchange, pending.routingKey, pending.message, correlationData);
+        } catch (AmqpException e) {
+            // broker 不可用时保留在窗口中，由超时检查重发
+            System.err.println("❌ [COMMAND] 发送到 RabbitMQ 失败，等待重发: " + pending.eventId + " - " + e.getMessage());
+        }
+    }
+
+    private void acknowledge(Pending pending, int attempt) {
+        synchronized (pending) {
+            if (pending.attempts != attempt || !outstanding.remove(pending.eventId, pending)) {
+                return;
+            }
+        }
+        window.release();
+        pending.future.complete(null);
+    }
+
+    private void retry(Pending pending, int attempt, String reason) {
+        int nextAttempt;
+        synchronized (pending) {
+            // 只处理最近一次发送的结果，过期的确认直接忽略
+            if (pending.attempts != attempt || !outstanding.containsKey(pending.eventId)) {
+                return;
+            }
+            if (pending.attempts >= maxAttempts) {
+                outstanding.remove(pending.eventId, pending);
+                window.release();
+                System.err.println("❌ [COMMAND] 消息发布失败，已达最大尝试次数: " + pending.eventId + " - " + reason);
+                pending.future.completeExceptionally(new AmqpException("消息未被 broker 确认: " + reason));
+                return;
+            }
+            nextAttempt = pending.nextAttempt();
+        }
+        System.err.println("🔄 [COMMAND] 重发未确认消息 (" + reason + "): " + pending.eventId
+                + ", 第 " + nextAttempt + " 次");
+        RetryJfrEvent retry = new RetryJfrEvent();
+        if (retry.shouldCommit()) {
+            Object eventType = pending.message.getMessageProperties().getHeader(RabbitMQConfig.EVENT_TYPE_HEADER);
+            retry.stage = "publish";
+            retry.eventType = eventType != null ? eventType.toString() : pending.routingKey;
+            retry.eventId = pending.eventId;
+            retry.attempt = nextAttempt;
+            retry.reason = reason;
+            retry.commit();
+        }
+        transmit(pending, nextAttempt);
+    }
+
+    /**
+     * 一条未确认的消息
+     */
+    private static final class Pending {
+        private final String eventId;
+        private final String exchange;
+        private final String routingKey;
+        private final Message message;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int attempts;
+        private volatile long sentAt;
+
+        private Pending(String eventId, String exchange, String routingKey, Message message) {
+            this.eventId = eventId;
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.message = message;
+        }
+
+        private synchronized int nextAttempt() {
+            sentAt = System.currentTimeMillis();
+            return ++attempts;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventbridge.command.infrastructure.persistence;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * 事件日志记录
+ * 与聚合写入在同一个命令端事务中追加，自增的 position 即事件的全局顺序位置
+ */
+@Entity
+@Table(name = "domain_event_log",
+        indexes = @Index(name = "idx_domain_event_log_event_id", columnList = "eventId", unique = true))
+@Getter
+public class StoredEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long position;
+
+    @Column(nullable = false, length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    private Instant occurredOn;
+
+    public StoredEvent() {}
+
+    public StoredEvent(String eventId, String eventType, String aggregateId, String payload, Instant occurredOn) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.occurredOn = occurredOn;
+    }
+}
@@ -0,0 +1,18 @@
+package com.eventbridge.command.infrastructure.persistence;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StoredEventRepository extends JpaRepository<StoredEvent, Long> {
+    List<StoredEvent> findByPositionGreaterThanOrderByPositionAsc(Long position, Pageable pageable);
+
+    boolean existsByPositionBetween(Long from, Long to);
+
+    @Query("select coalesce(max(e.position), 0) from StoredEvent e")
+    long findHeadPosition();
+}
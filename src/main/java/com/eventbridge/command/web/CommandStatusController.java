@@ -0,0 +1,34 @@
+package com.eventbridge.command.web;
+
+import com.eventbridge.command.application.async.AsyncCommandExecutor;
+import com.eventbridge.command.application.async.CommandStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 异步命令状态查询，状态在命令完成后保留 status-ttl-ms
+ */
+@RestController
+@RequestMapping(CommandStatusController.PATH)
+@ConditionalOnProperty(name = "eventbridge.command.async.enabled", havingValue = "true")
+public class CommandStatusController {
+
+    public static final String PATH = "/api/command/commands";
+
+    private final AsyncCommandExecutor asyncCommandExecutor;
+
+    public CommandStatusController(AsyncCommandExecutor asyncCommandExecutor) {
+        this.asyncCommandExecutor = asyncCommandExecutor;
+    }
+
+    @GetMapping("/{commandId}")
+    public ResponseEntity<CommandStatus> getStatus(@PathVariable String commandId) {
+        return asyncCommandExecutor.getStatus(commandId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
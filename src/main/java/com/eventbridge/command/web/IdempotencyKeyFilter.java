@@ -0,0 +1,267 @@
+package com.eventbridge.command.web;
+
+import com.eventbridge.common.event.ConsistencyToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 命令接口的 Idempotency-Key 支持
+ *
+ * 带 Idempotency-Key 头的写请求，同一个键只执行一次：
+ * 首个请求执行并缓存响应；执行期间到达的重试等待同一次执行的结果；之后的重试直接返回缓存的响应，不再访问数据库。
+ * 同一个键用于不同的方法、路径或请求体（按 SHA-256 比较）时返回 422。5xx 和 429 不缓存，客户端可以用同一个键重试。
+ * 存储容量有限（max-entries，超出时淘汰最早的键）且按 ttl-ms 过期。
+ */
+@Component
+@ConditionalOnProperty(name = "eventbridge.command.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String COMMAND_PATH = "/api/command/";
+    private static final List<String> REPLAYED_HEADERS =
+            List.of(HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER, ConsistencyToken.HEADER);
+
+    @Value("${eventbridge.command.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${eventbridge.command.idempotency.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${eventbridge.command.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    /** 按插入顺序排列，头部最旧，便于淘汰和过期清理 */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null
+                || HttpMethod.GET.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(COMMAND_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        // 先读出请求体计算摘要，再包装请求交给后续处理，控制器照常读取
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = request.getMethod() + " " + request.getRequestURI();
+        String bodyHash = sha256(cachedRequest.body);
+        Entry candidate = new Entry(fingerprint, bodyHash);
+        Entry existing = putIfAbsent(key, candidate);
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key 已用于其他请求: " + existing.fingerprint);
+                return;
+            }
+            if (!existing.bodyHash.equals(bodyHash)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key 已用于请求体不同的请求: " + existing.fingerprint);
+                return;
+            }
+            replay(existing, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(cachedRequest, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            remove(key, candidate);
+            candidate.response.completeExceptionally(e);
+            throw e;
+        }
+
+        CachedResponse cached = CachedResponse.capture(wrapper);
+        if (wrapper.getStatus() >= 500 || wrapper.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            // 失败或被限流的请求不缓存，后续重试重新执行
+            remove(key, candidate);
+        }
+        candidate.response.complete(cached);
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * 等待首个请求的执行结果并原样返回
+     */
+    private void replay(Entry entry, HttpServletResponse response) throws IOException {
+        CachedResponse cached;
+        try {
+            cached = entry.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            writeError(response, HttpStatus.CONFLICT, "相同 Idempotency-Key 的请求仍在执行中");
+            return;
+        } catch (ExecutionException e) {
+            writeError(response, HttpStatus.CONFLICT, "相同 Idempotency-Key 的请求执行失败，请重试");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "等待被中断");
+            return;
+        }
+        response.setStatus(cached.status);
+        cached.headers.forEach(response::setHeader);
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (cached.contentType != null) {
+            response.setContentType(cached.contentType);
+        }
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json;charset=UTF-8");
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private synchronized Entry putIfAbsent(String key, Entry candidate) {
+        Entry existing = entries.get(key);
+        if (existing != null && !existing.isExpired(ttlMs)) {
+            return existing;
+        }
+        entries.remove(key);
+        entries.put(key, candidate);
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    @Scheduled(fixedDelayString = "${eventbridge.command.idempotency.cleanup-interval-ms:60000}")
+    public synchronized void evictExpired() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().isExpired(ttlMs)) {
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final String bodyHash;
+        private final long createdAt = System.currentTimeMillis();
+        private final CompletableFuture<CachedResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, String bodyHash) {
+            this.fingerprint = fingerprint;
+            this.bodyHash = bodyHash;
+        }
+
+        private boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - createdAt > ttlMs;
+        }
+    }
+
+    private record CachedResponse(int status, String contentType, Map<String, String> headers, byte[] body) {
+        static CachedResponse capture(ContentCachingResponseWrapper wrapper) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : REPLAYED_HEADERS) {
+                String value = wrapper.getHeader(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+            return new CachedResponse(wrapper.getStatus(), wrapper.getContentType(), headers,
+                    wrapper.getContentAsByteArray());
+        }
+    }
+
+    /**
+     * 预先读出请求体的请求包装，之后的 getInputStream / getReader 从缓存的字节读取
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -1,44 +1,132 @@
 package com.eventbridge.command.web;
 
 import lombok.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.eventbridge.command.application.CommandThrottle;
 import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.async.AsyncCommandExecutor;
+import com.eventbridge.command.application.async.CommandRejectedException;
+import com.eventbridge.command.application.async.CommandStatus;
+import com.eventbridge.command.application.async.CommandType;
 import com.eventbridge.command.application.commands.CreateUserCommand;
 import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.common.observation.EventTracing;
 
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * 用户命令接口
+ * 默认同步执行并返回一致性令牌；开启 eventbridge.command.async.enabled 后命令入队异步执行，
+ * 立即返回 202 和命令状态地址，队列满或数据库过慢时返回 429 + Retry-After。
+ * 投影积压限流在命令事务开始前获取许可，等待期间不占用事务和命令库连接
+ */
 @RestController
 @RequestMapping("/api/command/users")
 public class UserCommandController {
 
     private final UserCommandService userCommandService;
+    private final AsyncCommandExecutor asyncCommandExecutor;
+    private final CommandThrottle commandThrottle;
+    private final EventTracing eventTracing;
 
-    public UserCommandController(UserCommandService userCommandService) {
+    public UserCommandController(UserCommandService userCommandService,
+                                 ObjectProvider<AsyncCommandExecutor> asyncCommandExecutor,
+                                 CommandThrottle commandThrottle,
+                                 EventTracing eventTracing) {
         this.userCommandService = userCommandService;
+        this.asyncCommandExecutor = asyncCommandExecutor.getIfAvailable();
+        this.commandThrottle = commandThrottle;
+        this.eventTracing = eventTracing;
     }
 
     @PostMapping
-    public ResponseEntity<UserCreatedResponse> createUser(@RequestBody CreateUserRequest request) {
+    public ResponseEntity<?> createUser(@RequestBody CreateUserRequest request) {
         CreateUserCommand command = new CreateUserCommand(request.getUsername(), request.getEmail());
-        String userId = userCommandService.handle(command);
+        Supplier<String> action = traced(CommandType.CREATE_USER, () -> userCommandService.handle(command));
+        if (asyncCommandExecutor != null) {
+            return submit(CommandType.CREATE_USER, action);
+        }
+        commandThrottle.acquire();
+        ConsistencyToken.clear();
+        String userId = action.get();
+        Long token = ConsistencyToken.take();
 
-        return ResponseEntity.ok(new UserCreatedResponse(userId, "User created successfully"));
+        return withToken(ResponseEntity.ok(), token)
+                .body(new UserCreatedResponse(userId, "User created successfully", token));
     }
 
     @PutMapping("/{userId}/email")
-    public ResponseEntity<Void> updateEmail(@PathVariable String userId,
-                                            @RequestBody UpdateEmailRequest request) {
+    public ResponseEntity<?> updateEmail(@PathVariable String userId,
+                                         @RequestBody UpdateEmailRequest request) {
         UpdateUserEmailCommand command = new UpdateUserEmailCommand(userId, request.getNewEmail());
-        userCommandService.handle(command);
+        Supplier<String> action = traced(CommandType.UPDATE_EMAIL, () -> {
+            userCommandService.handle(command);
+            return userId;
+        });
+        if (asyncCommandExecutor != null) {
+            return submit(CommandType.UPDATE_EMAIL, action);
+        }
+        commandThrottle.acquire();
+        ConsistencyToken.clear();
+        action.get();
 
-        return ResponseEntity.ok().build();
+        return withToken(ResponseEntity.ok(), ConsistencyToken.take()).build();
     }
 
     @PostMapping("/{userId}/deactivate")
-    public ResponseEntity<Void> deactivateUser(@PathVariable String userId) {
-        userCommandService.deactivateUser(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> deactivateUser(@PathVariable String userId) {
+        Supplier<String> action = traced(CommandType.DEACTIVATE_USER, () -> {
+            userCommandService.deactivateUser(userId);
+            return userId;
+        });
+        if (asyncCommandExecutor != null) {
+            return submit(CommandType.DEACTIVATE_USER, action);
+        }
+        commandThrottle.acquire();
+        ConsistencyToken.clear();
+        action.get();
+        return withToken(ResponseEntity.ok(), ConsistencyToken.take()).build();
+    }
+
+    @ExceptionHandler(CommandRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleRejected(CommandRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * 命令 span 包住整个命令事务，提交后触发的投影处理沿用该 trace
+     */
+    private Supplier<String> traced(CommandType type, Supplier<String> action) {
+        return () -> eventTracing.observe(EventTracing.COMMAND, type.name(), action);
+    }
+
+    /**
+     * 异步模式：入队后返回 202，Location 指向命令状态，执行完成后可从状态中取得结果和一致性令牌
+     */
+    private ResponseEntity<CommandStatus> submit(CommandType type, Supplier<String> action) {
+        CommandStatus status = asyncCommandExecutor.submit(type, action);
+        return ResponseEntity.accepted()
+                .location(URI.create(CommandStatusController.PATH + "/" + status.getCommandId()))
+                .body(status);
+    }
+
+    /**
+     * 返回一致性令牌，客户端随后的查询带上该头即可读到本次写入
+     */
+    private ResponseEntity.BodyBuilder withToken(ResponseEntity.BodyBuilder builder, Long token) {
+        if (token != null) {
+            builder.header(ConsistencyToken.HEADER, String.valueOf(token));
+        }
+        return builder;
     }
 
     @Getter
@@ -56,6 +144,7 @@ public class UserCommandController {
     public static class UserCreatedResponse {
         private String userId;
         private String message;
+        private Long consistencyToken;
     }
 
     @Getter
@@ -0,0 +1,194 @@
+package com.eventbridge.common.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩容的布隆过滤器（Scalable Bloom Filter）
+ *
+ * 由若干级普通布隆过滤器组成：当前级写满预定容量后追加新的一级，容量翻倍、误判率减半，
+ * 各级误判率之和收敛于目标误判率，因此不需要预先知道元素总数。
+ * 只会误判"可能存在"，不会漏判：mightContain 返回 false 时元素一定没有加入过。
+ * 线程安全：位数组用 CAS 置位，追加新级时加锁。
+ */
+public class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("初始容量必须大于 0: " + initialCapacity);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("误判率必须在 0 到 1 之间: " + falsePositiveRate);
+        }
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        stages.add(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    public void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+        if (mightContain(hash1, hash2)) {
+            return;
+        }
+        current().add(hash1, hash2);
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        return mightContain(hash1, mix(hash1) | 1);
+    }
+
+    /**
+     * 已加入的（去重后的）元素数，存在误判时会略小于实际值
+     */
+    public long size() {
+        return stages.stream().mapToLong(stage -> stage.count.get()).sum();
+    }
+
+    public int stageCount() {
+        return stages.size();
+    }
+
+    /**
+     * 位数组占用的内存字节数
+     */
+    public long memoryBytes() {
+        return stages.stream().mapToLong(stage -> (long) stage.bits.length() * Long.BYTES).sum();
+    }
+
+    /**
+     * 按各级实际置位比例估算的当前误判率
+     */
+    public double estimatedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Stage stage : stages) {
+            allNegative *= 1 - stage.estimatedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public long getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    private boolean mightContain(long hash1, long hash2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Stage current() {
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (stages) {
+            last = stages.get(stages.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                last = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+                stages.add(last);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * 64 位 FNV-1a，再经 mix 得到第二个哈希，用双重哈希生成 k 个位置
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 单级布隆过滤器
+     */
+    private static final class Stage {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) / Long.SIZE));
+            this.bitCount = words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact(words));
+        }
+
+        private void add(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                set(index(hash1, hash2, i));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(hash1, hash2, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long hash1, long hash2, int i) {
+            return Math.floorMod(hash1 + i * hash2, bitCount);
+        }
+
+        private void set(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    return;
+                }
+            }
+        }
+
+        private double estimatedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            return Math.pow((double) set / bitCount, hashCount);
+        }
+    }
+}
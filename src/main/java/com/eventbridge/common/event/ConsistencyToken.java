@@ -0,0 +1,44 @@
+package com.eventbridge.common.event;
+
+/**
+ * 一致性令牌（read-your-writes）
+ *
+ * 令牌就是命令产生的最后一个事件在事件日志中的位置。命令端在发布事件时记录到当前线程，
+ * 由命令接口取出并通过 X-Consistency-Token 头返回给客户端；查询接口带上该头时，
+ * 会等待投影进度到达该位置后再读取。
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> LAST_POSITION = new ThreadLocal<>();
+
+    private ConsistencyToken() {
+    }
+
+    /**
+     * 记录当前线程中命令产生的事件位置
+     */
+    public static void record(Long position) {
+        if (position == null) {
+            return;
+        }
+        Long current = LAST_POSITION.get();
+        if (current == null || position > current) {
+            LAST_POSITION.set(position);
+        }
+    }
+
+    /**
+     * 取出并清除当前线程记录的令牌，没有产生事件时返回 null
+     */
+    public static Long take() {
+        Long position = LAST_POSITION.get();
+        LAST_POSITION.remove();
+        return position;
+    }
+
+    public static void clear() {
+        LAST_POSITION.remove();
+    }
+}
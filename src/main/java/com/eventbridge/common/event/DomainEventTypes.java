@@ -0,0 +1,39 @@
+package com.eventbridge.common.event;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 事件类型名称与事件类的映射
+ * 供消息监听器和事件日志回放在反序列化时使用，与 DomainEventMixin 中的名称保持一致
+ */
+public final class DomainEventTypes {
+
+    private static final Map<String, Class<? extends DomainEvent>> TYPES = Map.of(
+            "UserCreated", UserCreatedEvent.class,
+            "UserEmailUpdated", UserEmailUpdatedEvent.class,
+            "UserDeactivated", UserDeactivatedEvent.class
+    );
+
+    private DomainEventTypes() {
+    }
+
+    /**
+     * 根据事件类型名称查找事件类，未知类型返回 null
+     */
+    public static Class<? extends DomainEvent> resolve(String eventType) {
+        return eventType == null ? null : TYPES.get(eventType);
+    }
+
+    /**
+     * 所有已知的事件类
+     */
+    public static Collection<Class<? extends DomainEvent>> all() {
+        return TYPES.values();
+    }
+}
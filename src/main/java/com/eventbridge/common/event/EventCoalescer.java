@@ -0,0 +1,101 @@
+package com.eventbridge.common.event;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批内事件合并
+ *
+ * 在一个分发批次内按聚合折叠冗余事件，减少追赶积压时的读模型写入次数，同一聚合内的事件顺序保持不变：
+ * 1. 连续的邮箱更新只保留最后一个，前面的被其吸收；
+ * 2. 创建之后紧跟的邮箱更新，把最终邮箱直接写入创建事件（一次插入即得到最终状态），
+ *    最后一个更新仍然保留，读模型已存在（创建被幂等跳过）时由它补上最终邮箱，否则它只是一次"邮箱未变化"的空操作；
+ * 3. 连续的停用只保留第一个。
+ * 停用不吸收之前的邮箱更新：停用不改变邮箱，吸收后会丢失最终邮箱。
+ * 被吸收的事件不会单独分发，调用方需要在保留事件成功处理后把它们视为已处理（去重、投影进度）。
+ */
+public final class EventCoalescer {
+
+    private EventCoalescer() {
+    }
+
+    /**
+     * 合并结果：实际分发的事件，以及被它吸收的原始事件
+     */
+    public record Folded(DomainEvent event, List<DomainEvent> absorbed) {
+    }
+
+    public static List<Folded> coalesce(List<DomainEvent> events) {
+        if (events.size() < 2) {
+            return events.stream().map(event -> new Folded(event, List.of())).toList();
+        }
+
+        Map<String, List<Slot>> byAggregate = new LinkedHashMap<>();
+        Map<String, Integer> createIndex = new HashMap<>();
+        for (int index = 0; index < events.size(); index++) {
+            DomainEvent event = events.get(index);
+            List<Slot> slots = byAggregate.computeIfAbsent(String.valueOf(event.getAggregateId()), id -> new ArrayList<>());
+            Slot last = slots.isEmpty() ? null : slots.get(slots.size() - 1);
+
+            if (event instanceof UserEmailUpdatedEvent update) {
+                if (last != null && last.event instanceof UserEmailUpdatedEvent) {
+                    // 连续更新：新的更新取代上一个，并继承其吸收的事件
+                    Slot replaced = new Slot(index, event);
+                    replaced.absorbed.addAll(last.absorbed);
+                    replaced.absorbed.add(last.event);
+                    slots.set(slots.size() - 1, replaced);
+                } else {
+                    slots.add(new Slot(index, event));
+                }
+                // 创建之后紧跟的更新链：把最终邮箱合并进创建事件
+                Integer created = createIndex.get(String.valueOf(event.getAggregateId()));
+                if (created != null && slots.size() >= 2 && slots.get(slots.size() - 2).index == created) {
+                    Slot createSlot = slots.get(slots.size() - 2);
+                    createSlot.event = withEmail((UserCreatedEvent) createSlot.event, update.getNewEmail());
+                }
+                continue;
+            }
+            if (event instanceof UserDeactivatedEvent && last != null && last.event instanceof UserDeactivatedEvent) {
+                last.absorbed.add(event);
+                continue;
+            }
+            if (event instanceof UserCreatedEvent) {
+                createIndex.put(String.valueOf(event.getAggregateId()), index);
+            }
+            slots.add(new Slot(index, event));
+        }
+
+        return byAggregate.values().stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingInt(slot -> slot.index))
+                .map(slot -> new Folded(slot.event, List.copyOf(slot.absorbed)))
+                .toList();
+    }
+
+    private static UserCreatedEvent withEmail(UserCreatedEvent created, String email) {
+        UserCreatedEvent merged = new UserCreatedEvent(created.getEventId(), created.getUserId(), created.getUsername(),
+                email, created.getCreatedAt(), created.getOccurredOn());
+        merged.setPosition(created.getPosition());
+        return merged;
+    }
+
+    private static final class Slot {
+        private final int index;
+        private DomainEvent event;
+        private final List<DomainEvent> absorbed = new ArrayList<>();
+
+        private Slot(int index, DomainEvent event) {
+            this.index = index;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventbridge.common.event;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多事件信封
+ *
+ * 把多个领域事件按顺序打包为一条 AMQP 消息，消息体为事件 JSON 数组；
+ * 超过压缩阈值时使用 LZ4 块压缩，并通过 content-encoding 和 x-uncompressed-length 头标记。
+ */
+public final class EventEnvelope {
+
+    public static final String ENVELOPE_HEADER = "x-envelope";
+    public static final String EVENT_COUNT_HEADER = "x-event-count";
+    public static final String UNCOMPRESSED_LENGTH_HEADER = "x-uncompressed-length";
+    public static final String LZ4_ENCODING = "lz4";
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+    private static final TypeReference<List<Map<String, Object>>> EVENTS_TYPE = new TypeReference<>() {
+    };
+
+    private EventEnvelope() {
+    }
+
+    public static Message pack(List<DomainEvent> events, ObjectMapper objectMapper, int compressionThreshold) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(events);
+        if (body.length > compressionThreshold) {
+            LZ4Compressor compressor = LZ4.fastCompressor();
+            byte[] compressed = compressor.compress(body);
+            return MessageBuilder.withBody(compressed)
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setContentEncoding(LZ4_ENCODING)
+                    .setHeader(UNCOMPRESSED_LENGTH_HEADER, body.length)
+                    .setHeader(ENVELOPE_HEADER, true)
+                    .setHeader(EVENT_COUNT_HEADER, events.size())
+                    .build();
+        }
+        return MessageBuilder.withBody(body)
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(ENVELOPE_HEADER, true)
+                .setHeader(EVENT_COUNT_HEADER, events.size())
+                .build();
+    }
+
+    public static boolean isEnvelope(Message message) {
+        return Boolean.TRUE.equals(message.getMessageProperties().getHeader(ENVELOPE_HEADER));
+    }
+
+    /**
+     * 解包为按发布顺序排列的事件 Map（由调用方按 eventType 转换为具体事件）
+     */
+    public static List<Map<String, Object>> unpack(Message message, ObjectMapper objectMapper) throws IOException {
+        MessageProperties properties = message.getMessageProperties();
+        byte[] body = message.getBody();
+        if (LZ4_ENCODING.equals(properties.getContentEncoding())) {
+            Object length = properties.getHeader(UNCOMPRESSED_LENGTH_HEADER);
+            if (!(length instanceof Number)) {
+                throw new IOException("LZ4 信封缺少 " + UNCOMPRESSED_LENGTH_HEADER + " 头");
+            }
+            LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+            body = decompressor.decompress(body, ((Number) length).intValue());
+        }
+        return objectMapper.readValue(body, EVENTS_TYPE);
+    }
+}
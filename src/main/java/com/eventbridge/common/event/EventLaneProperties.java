@@ -0,0 +1,47 @@
+package com.eventbridge.common.event;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 事件分发通道配置（eventbridge.dispatch）
+ *
+ * 每个通道声明它负责的事件类型、并发数、队列容量和优先级，未声明的事件类型进入 default-lane
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("eventbridge.dispatch")
+public class EventLaneProperties {
+
+    /**
+     * 未匹配任何通道的事件类型使用的通道，未配置时按 Lane 的默认值创建
+     */
+    private String defaultLane = "default";
+
+    /**
+     * 通道队列已满时提交方最多等待的时间，超时后该事件被拒绝，由投影停滞检测从事件日志补回
+     */
+    private long offerTimeoutMs = 1000;
+
+    private Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Lane {
+        private List<String> eventTypes = new ArrayList<>();
+        private int concurrency = 4;
+        private int queueCapacity = 500;
+        /**
+         * 线程优先级（1-10），数值越大越优先获得 CPU
+         */
+        private int priority = Thread.NORM_PRIORITY;
+    }
+}
@@ -0,0 +1,201 @@
+package com.eventbridge.common.event;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.common.jfr.QueueWaitRecordingTaskDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按事件类型划分的分发通道（舱壁隔离）
+ *
+ * 每个通道有独立的线程池、有界队列和线程优先级，某类事件积压或处理器变慢只会占满自己的通道，
+ * 不会拖慢其他通道（例如批量邮箱迁移不影响用户停用的投影）。
+ * 同一聚合的事件即使落在不同通道，也按提交顺序依次执行：后一个事件在前一个完成后才进入自己的通道。
+ * 这种接力由目标通道自己的转交线程完成，目标通道满时只阻塞它自己的转交线程，不占用前一个事件所在通道的工作线程。
+ * 每个通道的排队数、活跃线程、提交/拒绝/失败次数以及等待和执行耗时以 eventbridge.lane.* 指标暴露。
+ */
+@Component
+public class EventLanes {
+
+    private final EventLaneProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final Map<String, Lane> lanesByEventType = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> aggregateTails = new ConcurrentHashMap<>();
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+    private Lane defaultLane;
+
+    public EventLanes(EventLaneProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        properties.getLanes().forEach((name, config) -> {
+            Lane lane = new Lane(name, config);
+            lanes.put(name, lane);
+            config.getEventTypes().forEach(eventType -> lanesByEventType.put(eventType, lane));
+        });
+        defaultLane = lanes.computeIfAbsent(properties.getDefaultLane(),
+                name -> new Lane(name, new EventLaneProperties.Lane()));
+        lanes.values().forEach(lane -> System.out.println("🛣️ [EVENT-LANES] 通道 " + lane.name
+                + ": 并发 " + lane.config.getConcurrency() + "，队列 " + lane.config.getQueueCapacity()
+                + "，优先级 " + lane.config.getPriority() + "，事件类型 " + lane.config.getEventTypes()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.handoff.shutdown());
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    /**
+     * 把事件的处理提交到所属通道，返回处理完成（或被拒绝）时结束的 future
+     */
+    public CompletableFuture<Void> submit(DomainEvent event, Runnable task) {
+        return submit(event.getEventType(), event.getAggregateId(), task);
+    }
+
+    public CompletableFuture<Void> submit(String eventType, String aggregateId, Runnable submitted) {
+        // 在提交线程上捕获上下文（如 trace），经转交线程接力时也沿用提交方的上下文
+        Runnable task = contextSnapshots.captureAll().wrap(submitted);
+        Lane lane = laneFor(eventType);
+        lane.submitted.increment();
+        long submittedAt = System.nanoTime();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (aggregateId == null) {
+            lane.execute(task, submittedAt, done);
+            return done;
+        }
+        // 接在同一聚合上一个事件之后，前一个无论成功失败都会放行后一个；
+        // 前一个未完成时由本通道的转交线程提交，避免在其他通道的工作线程上等待本通道的队列空位
+        CompletableFuture<Void> previous = aggregateTails.put(aggregateId, done);
+        if (previous == null || previous.isDone()) {
+            lane.execute(task, submittedAt, done);
+        } else {
+            previous.whenCompleteAsync((result, error) -> lane.execute(task, submittedAt, done), lane.handoff);
+        }
+        done.whenComplete((result, error) -> aggregateTails.remove(aggregateId, done));
+        return done;
+    }
+
+    public String laneOf(String eventType) {
+        return laneFor(eventType).name;
+    }
+
+    public Collection<String> getLaneNames() {
+        return lanes.keySet();
+    }
+
+    private Lane laneFor(String eventType) {
+        return eventType == null ? defaultLane : lanesByEventType.getOrDefault(eventType, defaultLane);
+    }
+
+    /**
+     * 单个通道：独立线程池 + 指标
+     */
+    private final class Lane {
+        private final String name;
+        private final EventLaneProperties.Lane config;
+        private final ThreadPoolTaskExecutor executor;
+        /**
+         * 单线程转交执行器：把同一聚合的后续事件按顺序放入本通道，队列满时在这里等待
+         */
+        private final ThreadPoolTaskExecutor handoff;
+        private final Counter submitted;
+        private final Counter rejected;
+        private final Counter failed;
+        private final Timer waitTimer;
+        private final Timer executionTimer;
+
+        private Lane(String name, EventLaneProperties.Lane config) {
+            this.name = name;
+            this.config = config;
+
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(config.getConcurrency());
+            executor.setMaxPoolSize(config.getConcurrency());
+            executor.setQueueCapacity(config.getQueueCapacity());
+            executor.setThreadPriority(config.getPriority());
+            executor.setThreadNamePrefix("Lane-" + name + "-");
+            executor.setTaskDecorator(new QueueWaitRecordingTaskDecorator("lane-" + name, new ContextPropagatingTaskDecorator()));
+            executor.setRejectedExecutionHandler(this::waitForSpace);
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.initialize();
+
+            handoff = new ThreadPoolTaskExecutor();
+            handoff.setCorePoolSize(1);
+            handoff.setMaxPoolSize(1);
+            handoff.setThreadNamePrefix("Lane-" + name + "-handoff-");
+            handoff.setWaitForTasksToCompleteOnShutdown(true);
+            handoff.initialize();
+
+            Tags tags = Tags.of("lane", name);
+            Gauge.builder("eventbridge.lane.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                    .tags(tags).register(meterRegistry);
+            Gauge.builder("eventbridge.lane.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                    .tags(tags).register(meterRegistry);
+            submitted = meterRegistry.counter("eventbridge.lane.submitted", tags);
+            rejected = meterRegistry.counter("eventbridge.lane.rejected", tags);
+            failed = meterRegistry.counter("eventbridge.lane.failed", tags);
+            waitTimer = meterRegistry.timer("eventbridge.lane.wait", tags);
+            executionTimer = meterRegistry.timer("eventbridge.lane.execution", tags);
+        }
+
+        private void execute(Runnable task, long submittedAt, CompletableFuture<Void> done) {
+            try {
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    waitTimer.record(start - submittedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        task.run();
+                        done.complete(null);
+                    } catch (Throwable e) {
+                        failed.increment();
+                        done.completeExceptionally(e);
+                    } finally {
+                        executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                System.err.println("🚫 [EVENT-LANES] 通道 " + name + " 已满，事件被拒绝: " + e.getMessage());
+                done.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * 队列满时让提交方在限定时间内等待空位（反压），超时才拒绝
+         */
+        private void waitForSpace(Runnable task, ThreadPoolExecutor pool) {
+            try {
+                if (!pool.isShutdown() && pool.getQueue().offer(task, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("队列容量 " + config.getQueueCapacity() + " 已用尽");
+        }
+    }
+}
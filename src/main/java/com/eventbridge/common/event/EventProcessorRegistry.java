@@ -4,9 +4,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.context.event.EventListener;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.common.jfr.DedupHitJfrEvent;
+import com.eventbridge.common.jfr.DispatchJfrEvent;
+import com.eventbridge.common.observation.EventTracing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -15,7 +22,26 @@ import java.util.stream.Collectors;
 public class EventProcessorRegistry {
 
     private final Map<String, Consumer<DomainEvent>> processors = new ConcurrentHashMap<>();
+    /**
+     * 附加投影：事件类型 -> (投影名 -> 处理器)，与主处理器并列接收同一事件
+     */
+    private final Map<String, Map<String, Consumer<DomainEvent>>> projections = new ConcurrentHashMap<>();
     private final Set<String> processedEventIds = ConcurrentHashMap.newKeySet();
+    private final EventTracing eventTracing;
+    private final EventLanes eventLanes;
+
+    /**
+     * 不带分发通道，dispatch 在调用线程上同步处理（主要用于测试）
+     */
+    public EventProcessorRegistry() {
+        this(EventTracing.NOOP, null);
+    }
+
+    @Autowired
+    public EventProcessorRegistry(EventTracing eventTracing, EventLanes eventLanes) {
+        this.eventTracing = eventTracing;
+        this.eventLanes = eventLanes;
+    }
 
     /**
      * 应用启动完成后初始化
@@ -41,6 +67,42 @@ public class EventProcessorRegistry {
         System.out.println("📝 EventProcessorRegistry - 注册处理器: " + eventType);
     }
 
+    /**
+     * 注册附加投影（如全文索引），与该事件类型的主处理器并列执行。
+     * 附加投影各自隔离：失败只记录日志，不影响主处理器、不触发重试，由投影自身负责恢复（如重建）
+     */
+    public void registerProjection(String projectionName, String eventType, Consumer<DomainEvent> processor) {
+        if (projectionName == null || projectionName.trim().isEmpty()) {
+            throw new IllegalArgumentException("投影名称不能为空");
+        }
+        if (eventType == null || eventType.trim().isEmpty()) {
+            throw new IllegalArgumentException("事件类型不能为空");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("事件处理器不能为空");
+        }
+
+        projections.computeIfAbsent(eventType, key -> new ConcurrentHashMap<>()).put(projectionName, processor);
+        System.out.println("📝 EventProcessorRegistry - 注册附加投影: " + projectionName + " <- " + eventType);
+    }
+
+    /**
+     * 注销附加投影
+     */
+    public void unregisterProjection(String projectionName, String eventType) {
+        Map<String, Consumer<DomainEvent>> registered = projections.get(eventType);
+        if (registered != null && registered.remove(projectionName) != null) {
+            System.out.println("🗑️ EventProcessorRegistry - 注销附加投影: " + projectionName + " <- " + eventType);
+        }
+    }
+
+    /**
+     * 获取指定事件类型的附加投影名称
+     */
+    public Set<String> getProjectionNames(String eventType) {
+        return projections.getOrDefault(eventType, Map.of()).keySet();
+    }
+
     /**
      * 检查是否存在指定事件类型的处理器
      */
@@ -48,6 +110,13 @@ public class EventProcessorRegistry {
         return processors.containsKey(eventType);
     }
 
+    /**
+     * 事件是否需要处理：存在对应的处理器且尚未处理过。只依赖事件 ID 和类型，消费端可在解析消息体之前调用
+     */
+    public boolean shouldProcess(String eventId, String eventType) {
+        return processors.containsKey(eventType) && !processedEventIds.contains(eventId + ":" + eventType);
+    }
+
     /**
      * 获取注册的处理器数量
      */
@@ -204,7 +273,56 @@ public class EventProcessorRegistry {
         );
     }
 
+    /**
+     * 回放事件：直接调用处理器，跳过重复检测和重试（用于从事件日志恢复投影）
+     *
+     * @return 是否找到对应的处理器
+     */
+    public boolean replay(String eventType, DomainEvent event) {
+        Consumer<DomainEvent> processor = processors.get(eventType);
+        if (processor == null) {
+            return false;
+        }
+        processor.accept(event);
+        applyProjections(eventType, event);
+        return true;
+    }
+
     public void process(String eventType, DomainEvent event) {
+        process(eventType, event, List.of());
+    }
+
+    /**
+     * 把事件交给所属的分发通道处理（见 EventLanes），处理在 transactions 提供的事务内执行，
+     * 返回处理结束（事务已提交）时完成的 future；处理器失败、通道拒绝或事务提交失败时异常完成
+     */
+    public CompletableFuture<Void> dispatch(String eventType, DomainEvent event, List<DomainEvent> absorbed,
+                                            TransactionOperations transactions) {
+        Runnable task = () -> {
+            try {
+                transactions.executeWithoutResult(status -> process(eventType, event, absorbed));
+            } catch (RuntimeException e) {
+                // 事务未提交：撤销已处理标记，否则重试会被当作重复事件跳过
+                processedEventIds.remove(event.getEventId() + ":" + eventType);
+                absorbed.forEach(folded -> processedEventIds.remove(folded.getEventId() + ":" + folded.getEventType()));
+                throw e;
+            }
+        };
+        if (eventLanes == null) {
+            try {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return eventLanes.submit(eventType, event.getAggregateId(), task);
+    }
+
+    /**
+     * 处理合并后的事件，成功后被吸收的事件也一并记为已处理（见 EventCoalescer）
+     */
+    public void process(String eventType, DomainEvent event, List<DomainEvent> absorbed) {
         if (eventType == null || eventType.trim().isEmpty()) {
             System.err.println("❌ EventProcessorRegistry - 事件类型为空，无法处理");
             return;
@@ -218,28 +336,74 @@ public class EventProcessorRegistry {
         String eventKey = event.getEventId() + ":" + eventType;
         if (processedEventIds.contains(eventKey)) {
             System.out.println("⏭️ EventProcessorRegistry - 跳过已处理的事件: " + eventKey);
+            DedupHitJfrEvent dedupHit = new DedupHitJfrEvent();
+            if (dedupHit.shouldCommit()) {
+                dedupHit.eventType = eventType;
+                dedupHit.eventId = event.getEventId();
+                dedupHit.source = "registry";
+                dedupHit.commit();
+            }
             return;
         }
 
+        DispatchJfrEvent dispatch = new DispatchJfrEvent();
+        dispatch.begin();
         Consumer<DomainEvent> processor = processors.get(eventType);
         if (processor != null) {
             try {
                 System.out.println("🚀 EventProcessorRegistry - 执行处理器: " + eventType + " for " + event.getAggregateId());
-                processor.accept(event);
+                eventTracing.observe(EventTracing.PROCESS, eventType, () -> processor.accept(event));
+                commitDispatch(dispatch, eventType, event, absorbed, DispatchJfrEvent.SUCCESS);
                 // 记录已处理的事件
                 processedEventIds.add(eventKey);
+                absorbed.forEach(folded -> processedEventIds.add(folded.getEventId() + ":" + folded.getEventType()));
                 // 限制内存使用，只保留最近1000个事件ID
                 if (processedEventIds.size() > 1000) {
                     processedEventIds.clear();
                 }
 
                 System.out.println("✅ EventProcessorRegistry - 处理器执行成功: " + eventType);
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                // 处理失败抛给调用方：dispatch 的 future 异常完成，消息不确认并由监听容器重试
                 System.err.println("❌ EventProcessorRegistry - 处理器执行失败 " + eventType + ": " + e.getMessage());
-                e.printStackTrace();
+                commitDispatch(dispatch, eventType, event, absorbed, DispatchJfrEvent.FAILED);
+                throw e;
             }
         } else {
             System.out.println("⚠️ EventProcessorRegistry - 未找到事件处理器: " + eventType);
+            commitDispatch(dispatch, eventType, event, absorbed, DispatchJfrEvent.NO_PROCESSOR);
+        }
+        applyProjections(eventType, event);
+    }
+
+    /**
+     * 依次执行附加投影，单个投影失败不影响其他投影和主处理器
+     */
+    private void applyProjections(String eventType, DomainEvent event) {
+        Map<String, Consumer<DomainEvent>> registered = projections.get(eventType);
+        if (registered == null) {
+            return;
+        }
+        registered.forEach((projectionName, processor) -> {
+            try {
+                eventTracing.observe(EventTracing.PROCESS, eventType, () -> processor.accept(event));
+            } catch (Exception e) {
+                System.err.println("❌ EventProcessorRegistry - 附加投影执行失败 " + projectionName
+                        + " (" + eventType + "): " + e.getMessage());
+            }
+        });
+    }
+
+    private void commitDispatch(DispatchJfrEvent dispatch, String eventType, DomainEvent event,
+                                List<DomainEvent> absorbed, String outcome) {
+        dispatch.end();
+        if (dispatch.shouldCommit()) {
+            dispatch.eventType = eventType;
+            dispatch.aggregateId = String.valueOf(event.getAggregateId());
+            dispatch.eventId = event.getEventId();
+            dispatch.absorbed = absorbed.size();
+            dispatch.outcome = outcome;
+            dispatch.commit();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 重复事件被跳过；source 为 registry（分发前去重）或 header（消费端按消息头跳过，未解析消息体）
+ */
+@Name("eventbridge.DedupHit")
+@Label("Dedup Hit")
+@Category({"EventBridge", "Dispatch"})
+@Description("重复投递的事件被去重跳过")
+@StackTrace(false)
+public class DedupHitJfrEvent extends jdk.jfr.Event {
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Event ID")
+    public String eventId;
+
+    @Label("Source")
+    public String source;
+}
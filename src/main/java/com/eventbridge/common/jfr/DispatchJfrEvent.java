@@ -0,0 +1,38 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次事件分发（EventProcessorRegistry.process），持续时间即处理器执行耗时
+ */
+@Name("eventbridge.Dispatch")
+@Label("Event Dispatch")
+@Category({"EventBridge", "Dispatch"})
+@Description("EventProcessorRegistry 分发一个领域事件")
+@StackTrace(false)
+public class DispatchJfrEvent extends jdk.jfr.Event {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILED = "FAILED";
+    public static final String NO_PROCESSOR = "NO_PROCESSOR";
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Aggregate ID")
+    public String aggregateId;
+
+    @Label("Event ID")
+    public String eventId;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Absorbed Events")
+    @Description("被合并进本次分发的事件数")
+    public int absorbed;
+}
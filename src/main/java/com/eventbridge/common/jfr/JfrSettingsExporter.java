@@ -0,0 +1,62 @@
+package com.eventbridge.common.jfr;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 启动时把打包在 jar 内的 JFR 配置（classpath:jfr/eventbridge.jfc）导出到本地文件，
+ * jcmd JFR.start 的 settings 参数只接受文件路径，部署环境中没有源码目录
+ */
+@Component
+public class JfrSettingsExporter {
+
+    static final String RESOURCE = "jfr/eventbridge.jfc";
+
+    @Value("${eventbridge.jfr.export-settings:true}")
+    private boolean enabled;
+
+    @Value("${eventbridge.jfr.settings-path:./data/jfr/eventbridge.jfc}")
+    private String settingsPath;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void export() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path target = export(Path.of(settingsPath));
+            System.out.println("🎞️ [JFR] 录制配置已导出，可执行: jcmd " + ProcessHandle.current().pid()
+                    + " JFR.start name=eventbridge settings=default," + target.toAbsolutePath() + " filename=eventbridge.jfr");
+        } catch (IOException e) {
+            System.err.println("⚠️ [JFR] 导出录制配置失败: " + settingsPath + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 导出到指定文件，内容未变化时不重写
+     */
+    public static Path export(Path target) throws IOException {
+        byte[] settings;
+        try (InputStream in = new ClassPathResource(RESOURCE).getInputStream()) {
+            settings = in.readAllBytes();
+        }
+        if (Files.exists(target) && Arrays.equals(Files.readAllBytes(target), settings)) {
+            return target;
+        }
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(target, settings);
+        return target;
+    }
+}
@@ -0,0 +1,28 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次读模型写入，持续时间即 save 耗时（JPA 存储下不含事务提交时的 flush）
+ */
+@Name("eventbridge.ProjectionWrite")
+@Label("Projection Write")
+@Category({"EventBridge", "Projection"})
+@Description("投影处理器写入 UserView")
+@StackTrace(false)
+public class ProjectionWriteJfrEvent extends jdk.jfr.Event {
+
+    @Label("Handler")
+    @Description("local（本地事件监听）或 registry（RabbitMQ 事件处理器）")
+    public String handler;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("User ID")
+    public String userId;
+}
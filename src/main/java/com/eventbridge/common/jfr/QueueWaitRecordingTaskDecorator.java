@@ -0,0 +1,36 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.EventType;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 记录任务排队时间的 TaskDecorator
+ * 提交时开始计时，工作线程开始执行时提交 TaskQueueWaitJfrEvent；未录制该事件时直接返回原任务，没有额外开销
+ */
+public class QueueWaitRecordingTaskDecorator implements TaskDecorator {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(TaskQueueWaitJfrEvent.class);
+
+    private final String executor;
+    private final TaskDecorator delegate;
+
+    public QueueWaitRecordingTaskDecorator(String executor, TaskDecorator delegate) {
+        this.executor = executor;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable decorated = delegate.decorate(runnable);
+        if (!EVENT_TYPE.isEnabled()) {
+            return decorated;
+        }
+        TaskQueueWaitJfrEvent event = new TaskQueueWaitJfrEvent();
+        event.executor = executor;
+        event.begin();
+        return () -> {
+            event.commit();
+            decorated.run();
+        };
+    }
+}
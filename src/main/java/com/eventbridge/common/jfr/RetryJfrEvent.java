@@ -0,0 +1,34 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次重试；stage 为 listener（处理失败后监听容器在监听线程上重试）、redelivery（处理未完成的消息被 broker 重新投递）
+ * 或 publish（发布确认超时 / nack 后重发）
+ */
+@Name("eventbridge.Retry")
+@Label("Retry")
+@Category({"EventBridge", "Dispatch"})
+@Description("事件处理或发布的重试")
+@StackTrace(false)
+public class RetryJfrEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Event ID")
+    public String eventId;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Reason")
+    public String reason;
+}
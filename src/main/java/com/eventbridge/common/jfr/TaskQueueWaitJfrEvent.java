@@ -0,0 +1,21 @@
+package com.eventbridge.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 任务在线程池队列中的等待，从提交开始到工作线程开始执行为止
+ */
+@Name("eventbridge.TaskQueueWait")
+@Label("Task Queue Wait")
+@Category({"EventBridge", "Executor"})
+@Description("异步任务在线程池队列中等待执行")
+@StackTrace(false)
+public class TaskQueueWaitJfrEvent extends jdk.jfr.Event {
+
+    @Label("Executor")
+    public String executor;
+}
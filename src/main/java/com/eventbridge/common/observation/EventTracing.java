@@ -0,0 +1,57 @@
+package com.eventbridge.common.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 事件链路埋点
+ *
+ * 基于 Micrometer Observation：每个观测同时产生计时指标和 OpenTelemetry span，
+ * 一个命令从接口、事件发布、AMQP 收发、处理器到投影写库落在同一条 trace 上。
+ * span 是否导出由 management.tracing.sampling.probability 控制，未采样时只剩极小的开销。
+ */
+@Component
+public class EventTracing {
+
+    public static final String COMMAND = "eventbridge.command";
+    public static final String PUBLISH = "eventbridge.event.publish";
+    public static final String PROCESS = "eventbridge.event.process";
+    public static final String PROJECTION_WRITE = "eventbridge.projection.write";
+
+    /** 不产生任何观测，用于不在 Spring 容器中创建的对象 */
+    public static final EventTracing NOOP = new EventTracing(ObservationRegistry.NOOP);
+
+    private final ObservationRegistry observationRegistry;
+
+    public EventTracing(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * 在观测中执行，span 名称为 "名称 操作"（操作转为小写连字符形式，如 user-created），
+     * 原始操作名（命令类型或事件类型）同时作为低基数标签
+     */
+    public <T> T observe(String name, String operation, Supplier<T> action) {
+        return Observation.createNotStarted(name, observationRegistry)
+                .contextualName(name + " " + toSpanName(operation))
+                .lowCardinalityKeyValue("operation", operation)
+                .observe(action);
+    }
+
+    public void observe(String name, String operation, Runnable action) {
+        Observation.createNotStarted(name, observationRegistry)
+                .contextualName(name + " " + toSpanName(operation))
+                .lowCardinalityKeyValue("operation", operation)
+                .observe(action);
+    }
+
+    /**
+     * UserCreated / CREATE_USER -> user-created / create-user
+     */
+    static String toSpanName(String operation) {
+        return operation.replaceAll("([a-z0-9])([A-Z])", "$1-$2").replace('_', '-').toLowerCase();
+    }
+}
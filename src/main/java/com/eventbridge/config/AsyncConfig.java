@@ -2,7 +2,9 @@ package com.eventbridge.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import com.eventbridge.common.jfr.QueueWaitRecordingTaskDecorator;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -18,6 +20,23 @@ public class AsyncConfig {
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("Async-");
+        // 把提交线程的观测（trace）上下文带到异步投影处理中，并用 JFR 记录排队时间
+        executor.setTaskDecorator(new QueueWaitRecordingTaskDecorator("taskExecutor", new ContextPropagatingTaskDecorator()));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 带一致性令牌的查询在投影追上后于此线程池执行，不占用投影线程
+     */
+    @Bean(name = "queryExecutor")
+    public TaskExecutor queryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("Query-");
+        executor.setTaskDecorator(new QueueWaitRecordingTaskDecorator("queryExecutor", new ContextPropagatingTaskDecorator()));
         executor.initialize();
         return executor;
     }
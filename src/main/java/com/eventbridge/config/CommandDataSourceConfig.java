@@ -0,0 +1,79 @@
+package com.eventbridge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * 命令端（写模型）数据源配置
+ * users 表独占一个连接池、EntityManagerFactory 和事务管理器，
+ * 不再与查询端的投影写入和读请求争抢连接
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackages = "com.eventbridge.command",
+        entityManagerFactoryRef = "commandEntityManagerFactory",
+        transactionManagerRef = "commandTransactionManager"
+)
+public class CommandDataSourceConfig {
+
+    public static final String TRANSACTION_MANAGER = "commandTransactionManager";
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("eventbridge.datasource.command")
+    public DataSourceProperties commandDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * 命令端连接池，池大小通过 eventbridge.datasource.command.hikari.* 单独调优
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("eventbridge.datasource.command.hikari")
+    public HikariDataSource commandDataSource(
+            @Qualifier("commandDataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public LocalContainerEntityManagerFactoryBean commandEntityManagerFactory(
+            EntityManagerFactoryBuilder builder,
+            @Qualifier("commandDataSource") DataSource dataSource,
+            JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties) {
+        return builder
+                .dataSource(dataSource)
+                .packages("com.eventbridge.command")
+                .persistenceUnit("command")
+                .properties(hibernateProperties.determineHibernateProperties(
+                        jpaProperties.getProperties(), new HibernateSettings()))
+                .build();
+    }
+
+    @Bean(TRANSACTION_MANAGER)
+    @Primary
+    public PlatformTransactionManager commandTransactionManager(
+            @Qualifier("commandEntityManagerFactory") EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,54 @@
+package com.eventbridge.config;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 懒加载模式（spring.main.lazy-initialization=true，见 fast-startup 配置）下仍需立即创建的 Bean
+ *
+ * 定时任务、@PostConstruct 注册逻辑（如 UserEventRegistrar 注册事件处理器、分区监听容器）、生命周期组件，
+ * 以及 @RabbitListener 消费端和 @EventListener / @TransactionalEventListener 事件处理器
+ * 只有在 Bean 创建后才生效，必须保持立即加载；其余 Bean（控制器、查询服务等）在首次使用时才创建。
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final List<Class<? extends Annotation>> EAGER_METHOD_ANNOTATIONS =
+            // @TransactionalEventListener 以 @EventListener 为元注解，一并匹配
+            List.of(Scheduled.class, PostConstruct.class, RabbitListener.class, EventListener.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerEventPipelineBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                SmartLifecycle.class.isAssignableFrom(beanType) || hasEagerMethod(beanType);
+    }
+
+    private static boolean hasEagerMethod(Class<?> beanType) {
+        if (!beanType.getName().startsWith("com.eventbridge.")) {
+            return false;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(beanType, RabbitListener.class)) {
+            return true;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true), LazyInitializationConfig::isEager);
+        return found.get();
+    }
+
+    private static boolean isEager(Method method) {
+        return EAGER_METHOD_ANNOTATIONS.stream().anyMatch(annotation -> AnnotatedElementUtils.hasAnnotation(method, annotation));
+    }
+}
@@ -0,0 +1,60 @@
+package com.eventbridge.config;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.model.User;
+import com.eventbridge.command.infrastructure.persistence.StoredEvent;
+import com.eventbridge.common.event.DomainEventTypes;
+import com.eventbridge.query.infrastructure.events.RabbitMQEventsListener;
+import com.eventbridge.query.infrastructure.model.PartitionMember;
+import com.eventbridge.query.infrastructure.model.ProjectionCheckpoint;
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * GraalVM native image 运行时提示（mvn -Pnative native:compile）
+ *
+ * 事件类通过 @JsonCreator 构造器反序列化、按 DomainEventMixin 中的类型名多态解析，
+ * JPA 实体由 Hibernate 反射访问字段，这些在构建期的静态分析中看不到，需要显式登记。
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.EventBridgeRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            User.class, StoredEvent.class, UserView.class, ProjectionCheckpoint.class, PartitionMember.class);
+
+    public static class EventBridgeRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // 事件类：Jackson 绑定（字段、getter、@JsonCreator 构造器及其参数注解）
+            for (Class<? extends DomainEvent> eventClass : DomainEventTypes.all()) {
+                bindingRegistrar.registerReflectionHints(hints.reflection(), eventClass);
+                hints.reflection().registerType(eventClass,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+            }
+            hints.reflection().registerType(DomainEvent.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            // mixin 只提供注解，Jackson 需要能读取其类型信息
+            hints.reflection().registerType(DomainEventMixin.class, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // 分区监听容器回调的消息处理入口
+            hints.reflection().registerType(RabbitMQEventsListener.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.resources().registerPattern("jfr/eventbridge.jfc");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.eventbridge.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分区队列拓扑
+ *
+ * domain-events-exchange --user.*--> user-events-partitioned（x-consistent-hash，按 x-aggregate-id 头哈希）
+ *                                      --> user-events-queue.p0 ... p(N-1)
+ * 同一用户的事件总是进入同一个分区；每个分区队列开启 x-single-active-consumer，
+ * 重新分配期间即使两个节点短暂同时订阅，也只有一个消费者在消费，分区内顺序不变。
+ * 重试耗尽的消息与单队列模式一样进入 user-events-queue.dlq。
+ * 需要 broker 启用 rabbitmq_consistent_hash_exchange 插件。
+ */
+@Configuration
+@ConditionalOnProperty(name = "eventbridge.rabbitmq.partitions.enabled", havingValue = "true")
+public class PartitionedQueuesConfig {
+
+    @Value("${eventbridge.rabbitmq.partitions.count:8}")
+    private int partitionCount;
+
+    @Bean
+    public Declarables userEventsPartitions(TopicExchange domainEventsExchange) {
+        CustomExchange partitionedExchange = new CustomExchange(
+                RabbitMQConfig.USER_EVENTS_PARTITIONED_EXCHANGE, "x-consistent-hash", true, false,
+                Map.of("hash-header", RabbitMQConfig.AGGREGATE_ID_HEADER));
+
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(partitionedExchange);
+        declarables.add(BindingBuilder.bind(partitionedExchange).to(domainEventsExchange).with("user.*"));
+        for (int partition = 0; partition < partitionCount; partition++) {
+            Queue queue = QueueBuilder.durable(partitionQueue(partition))
+                    .singleActiveConsumer()
+                    .deadLetterExchange(RabbitMQConfig.USER_EVENTS_DEAD_LETTER_EXCHANGE)
+                    .build();
+            declarables.add(queue);
+            // 一致性哈希交换机的绑定键是该队列在哈希环上的权重
+            declarables.add(new Binding(queue.getName(), Binding.DestinationType.QUEUE,
+                    partitionedExchange.getName(), "1", null));
+        }
+        System.out.println("✅ 分区队列拓扑配置完成: " + partitionCount + " 个分区");
+        return new Declarables(declarables);
+    }
+
+    public static String partitionQueue(int partition) {
+        return RabbitMQConfig.USER_EVENTS_PARTITION_QUEUE_PREFIX + partition;
+    }
+}
@@ -0,0 +1,74 @@
+package com.eventbridge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * 查询端（读模型）数据源配置
+ * user_views 表使用独立的连接池、EntityManagerFactory 和事务管理器，
+ * 读扩展与投影吞吐可以与命令端分开调优
+ */
+@Configuration
+@EnableJpaRepositories(
+        basePackages = "com.eventbridge.query",
+        entityManagerFactoryRef = "queryEntityManagerFactory",
+        transactionManagerRef = "queryTransactionManager"
+)
+public class QueryDataSourceConfig {
+
+    public static final String TRANSACTION_MANAGER = "queryTransactionManager";
+
+    @Bean
+    @ConfigurationProperties("eventbridge.datasource.query")
+    public DataSourceProperties queryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * 查询端连接池，池大小通过 eventbridge.datasource.query.hikari.* 单独调优
+     */
+    @Bean
+    @ConfigurationProperties("eventbridge.datasource.query.hikari")
+    public HikariDataSource queryDataSource(
+            @Qualifier("queryDataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean queryEntityManagerFactory(
+            EntityManagerFactoryBuilder builder,
+            @Qualifier("queryDataSource") DataSource dataSource,
+            JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties) {
+        return builder
+                .dataSource(dataSource)
+                .packages("com.eventbridge.query")
+                .persistenceUnit("query")
+                .properties(hibernateProperties.determineHibernateProperties(
+                        jpaProperties.getProperties(), new HibernateSettings()))
+                .build();
+    }
+
+    @Bean(TRANSACTION_MANAGER)
+    public PlatformTransactionManager queryTransactionManager(
+            @Qualifier("queryEntityManagerFactory") EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -2,14 +2,20 @@ package com.eventbridge.config;
 
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -26,15 +32,55 @@ public class RabbitMQConfig {
     public static final String DOMAIN_EVENTS_EXCHANGE = "domain-events-exchange";
     public static final String USER_EVENTS_QUEUE = "user-events-queue";
     public static final String ORDER_EVENTS_QUEUE = "order-events-queue";
+    public static final String USER_EVENTS_LISTENER_ID = "user-events-listener";
+
+    /**
+     * 重试耗尽的用户事件经死信交换机进入死信队列，不再重新入队
+     */
+    public static final String USER_EVENTS_DEAD_LETTER_EXCHANGE = "user-events-dlx";
+    public static final String USER_EVENTS_DEAD_LETTER_QUEUE = "user-events-queue.dlq";
+
+    /**
+     * 分区模式：按聚合 ID 一致性哈希路由到 N 个分区队列
+     */
+    public static final String USER_EVENTS_PARTITIONED_EXCHANGE = "user-events-partitioned";
+    public static final String USER_EVENTS_PARTITION_QUEUE_PREFIX = "user-events-queue.p";
+    public static final String AGGREGATE_ID_HEADER = "x-aggregate-id";
+
+    /**
+     * 事件元数据头：消费端只看头即可完成去重和处理器检查，无需先解析消息体
+     */
+    public static final String EVENT_ID_HEADER = "x-event-id";
+    public static final String EVENT_TYPE_HEADER = "x-event-type";
 
     @Bean
     public TopicExchange domainEventsExchange() {
         return new TopicExchange(DOMAIN_EVENTS_EXCHANGE);
     }
 
+    /**
+     * 已存在且未配置死信交换机的 user-events-queue 需先在 broker 上删除，否则声明参数不一致会失败
+     */
     @Bean
     public Queue userEventsQueue() {
-        return new Queue(USER_EVENTS_QUEUE, true);
+        return QueueBuilder.durable(USER_EVENTS_QUEUE)
+                .deadLetterExchange(USER_EVENTS_DEAD_LETTER_EXCHANGE)
+                .build();
+    }
+
+    @Bean
+    public FanoutExchange userEventsDeadLetterExchange() {
+        return new FanoutExchange(USER_EVENTS_DEAD_LETTER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue userEventsDeadLetterQueue() {
+        return new Queue(USER_EVENTS_DEAD_LETTER_QUEUE, true);
+    }
+
+    @Bean
+    public Binding userEventsDeadLetterBinding() {
+        return BindingBuilder.bind(userEventsDeadLetterQueue()).to(userEventsDeadLetterExchange());
     }
 
     @Bean
@@ -42,7 +88,11 @@ public class RabbitMQConfig {
         return new Queue(ORDER_EVENTS_QUEUE, true);
     }
 
+    /**
+     * 分区模式下用户事件改由分区队列消费，不再投递到单一队列
+     */
     @Bean
+    @ConditionalOnProperty(name = "eventbridge.rabbitmq.partitions.enabled", havingValue = "false", matchIfMissing = true)
     public Binding userEventsBinding() {
         return BindingBuilder.bind(userEventsQueue())
                 .to(domainEventsExchange())
@@ -130,6 +180,8 @@ public class RabbitMQConfig {
 
         // 使用专门为 RabbitMQ 配置的消息转换器
         template.setMessageConverter(jsonMessageConverter);
+        // 发送时生成 span 并把 trace 上下文写入消息头
+        template.setObservationEnabled(true);
 
         // 配置确认模式
         template.setConfirmCallback((correlationData, ack, cause) -> {
@@ -153,13 +205,32 @@ public class RabbitMQConfig {
         return template;
     }
 
+    /**
+     * 监听容器以最小消费者数和稳态预取值启动，之后由 ListenerConsumerAutoscaler 按积压情况动态调整。
+     * 处理失败的消息在监听线程上按退避重试 max-attempts 次，仍失败则拒绝且不重新入队，由死信交换机转入死信队列，
+     * 避免提交始终失败的消息被无限重投
+     */
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
-            Jackson2JsonMessageConverter jsonMessageConverter) {
+            Jackson2JsonMessageConverter jsonMessageConverter,
+            @Value("${eventbridge.rabbitmq.listener.min-consumers:1}") int minConsumers,
+            @Value("${eventbridge.rabbitmq.listener.prefetch:50}") int prefetch,
+            @Value("${eventbridge.rabbitmq.listener.retry.max-attempts:3}") int maxAttempts,
+            @Value("${eventbridge.rabbitmq.listener.retry.initial-interval-ms:200}") long initialIntervalMs,
+            @Value("${eventbridge.rabbitmq.listener.retry.max-interval-ms:2000}") long maxIntervalMs) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jsonMessageConverter);
+        factory.setConcurrentConsumers(minConsumers);
+        factory.setPrefetchCount(prefetch);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(initialIntervalMs, 2.0, maxIntervalMs)
+                .recoverer(new RejectAndDontRequeueRecoverer())
+                .build());
+        // 接收时从消息头恢复 trace 上下文
+        factory.setObservationEnabled(true);
         return factory;
     }
-}
\ No newline at end of file
+}
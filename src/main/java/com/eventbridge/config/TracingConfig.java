@@ -0,0 +1,31 @@
+package com.eventbridge.config;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 链路追踪配置
+ * 采样率由 management.tracing.sampling.probability 控制；
+ * 本地调试时开启 eventbridge.tracing.logging-exporter.enabled，把结束的 span 打印到日志
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * 不观测 @Scheduled 任务：信封刷新等任务每隔几十毫秒执行一次，观测它们只会产生大量无关的 trace
+     */
+    @Bean
+    public ObservationPredicate ignoreScheduledTasks() {
+        return (name, context) -> !"tasks.scheduled.execution".equals(name);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "eventbridge.tracing.logging-exporter.enabled", havingValue = "true")
+    public LoggingSpanExporter loggingSpanExporter() {
+        System.out.println("🔭 [TRACING] 已启用日志 span 导出");
+        return LoggingSpanExporter.create();
+    }
+}
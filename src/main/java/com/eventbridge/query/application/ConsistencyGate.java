@@ -0,0 +1,76 @@
+package com.eventbridge.query.application;
+
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 一致性令牌闸门
+ *
+ * 查询带有令牌时，先异步等待投影进度到达令牌位置再执行查询（不占用 Servlet 线程，也不轮询）；
+ * 超过 timeout-ms 仍未到达时返回 503，由客户端稍后重试。没有令牌时直接查询。
+ */
+@Component
+public class ConsistencyGate {
+
+    private final ProjectionTracker projectionTracker;
+    private final EventStore eventStore;
+    private final TaskExecutor queryExecutor;
+
+    @Value("${eventbridge.query.consistency.timeout-ms:3000}")
+    private long timeoutMs;
+
+    public ConsistencyGate(ProjectionTracker projectionTracker,
+                           EventStore eventStore,
+                           @Qualifier("queryExecutor") TaskExecutor queryExecutor) {
+        this.projectionTracker = projectionTracker;
+        this.eventStore = eventStore;
+        this.queryExecutor = queryExecutor;
+    }
+
+    public <T> CompletableFuture<T> afterToken(Long token, Supplier<T> query) {
+        if (isReached(token)) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+        return awaitToken(token).thenApplyAsync(reached -> query.get(), queryExecutor);
+    }
+
+    /**
+     * 等待投影到达令牌位置，不执行查询；供响应式查询端在此之后订阅查询
+     */
+    public CompletableFuture<Void> awaitToken(Long token) {
+        if (isReached(token)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (token > eventStore.getHeadPosition()) {
+            return CompletableFuture.failedFuture(
+                    new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的一致性令牌: " + token));
+        }
+        return projectionTracker.awaitPosition(ProjectionTracker.USER_VIEWS, token)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((reached, ex) -> {
+                    if (ex != null) {
+                        if (ex instanceof TimeoutException) {
+                            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                    "投影尚未到达一致性令牌位置: " + token);
+                        }
+                        throw new IllegalStateException(ex);
+                    }
+                    return null;
+                });
+    }
+
+    private boolean isReached(Long token) {
+        return token == null || token <= projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+    }
+}
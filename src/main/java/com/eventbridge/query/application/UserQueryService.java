@@ -1,6 +1,7 @@
 package com.eventbridge.query.application;
 
 import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.config.QueryDataSourceConfig;
 import com.eventbridge.query.infrastructure.model.UserView;
 import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
 import org.springframework.stereotype.Service;
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-@Transactional(readOnly = true)
+@Transactional(transactionManager = QueryDataSourceConfig.TRANSACTION_MANAGER, readOnly = true)
 public class UserQueryService {
     private final UserViewRepository userViewRepository;
 
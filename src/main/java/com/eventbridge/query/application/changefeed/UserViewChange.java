@@ -0,0 +1,29 @@
+package com.eventbridge.query.application.changefeed;
+
+import com.eventbridge.query.infrastructure.model.UserView;
+
+/**
+ * 读模型变更：position 为引起变更的事件位置，view 为变更后的 UserView 副本
+ */
+public record UserViewChange(long position, Type type, UserView view) {
+
+    public enum Type {
+        CREATED,
+        EMAIL_UPDATED,
+        DEACTIVATED
+    }
+
+    /**
+     * 复制一份与持久化上下文无关的视图，避免后续修改影响已发布的变更
+     */
+    static UserViewChange of(long position, Type type, UserView view) {
+        UserView copy = new UserView();
+        copy.setUserId(view.getUserId());
+        copy.setUsername(view.getUsername());
+        copy.setEmail(view.getEmail());
+        copy.setCreatedAt(view.getCreatedAt());
+        copy.setStatus(view.getStatus());
+        copy.setLastUpdated(view.getLastUpdated());
+        return new UserViewChange(position, type, copy);
+    }
+}
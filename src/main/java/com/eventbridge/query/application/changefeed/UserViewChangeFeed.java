@@ -0,0 +1,173 @@
+package com.eventbridge.query.application.changefeed;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * UserView 变更流
+ *
+ * 投影处理器在读模型事务提交后发布变更；变更先暂存，等投影水位线越过其位置后才按位置顺序进入环形缓冲区，
+ * 因此订阅者看到的变更严格按事件位置递增，按位置续读不会漏掉并发处理中晚提交的变更。
+ * 缓冲区容量有限，续读位置早于缓冲区中最早的变更时无法续读（由调用方返回 410）。
+ */
+@Component
+public class UserViewChangeFeed {
+
+    private final ProjectionTracker projectionTracker;
+
+    @Value("${eventbridge.query.change-feed.capacity:10000}")
+    private int capacity;
+
+    private UserViewChange[] ring;
+    private int start;
+    private int size;
+    private long evictedUpTo;
+
+    private final ConcurrentSkipListMap<Long, UserViewChange> staged = new ConcurrentSkipListMap<>();
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    public UserViewChangeFeed(ProjectionTracker projectionTracker) {
+        this.projectionTracker = projectionTracker;
+    }
+
+    @PostConstruct
+    public void init() {
+        ring = new UserViewChange[capacity];
+    }
+
+    /**
+     * 发布变更；存在活动事务时在提交后才生效，回滚的变更不会出现在变更流中
+     */
+    public void publish(DomainEvent event, UserViewChange.Type type, UserView view) {
+        Long position = event.getPosition();
+        if (position == null) {
+            return;
+        }
+        UserViewChange change = UserViewChange.of(position, type, view);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stage(change);
+                }
+            });
+        } else {
+            stage(change);
+        }
+    }
+
+    private void stage(UserViewChange change) {
+        staged.put(change.position(), change);
+        if (!release()) {
+            // 前面还有未完成的事件，水位线到达后再释放
+            projectionTracker.awaitPosition(ProjectionTracker.USER_VIEWS, change.position())
+                    .thenRun(this::release);
+        }
+    }
+
+    /**
+     * 把水位线以内的暂存变更按顺序移入缓冲区
+     *
+     * @return 暂存区是否已清空
+     */
+    private boolean release() {
+        long watermark = projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+        long latest = -1;
+        synchronized (this) {
+            Map.Entry<Long, UserViewChange> entry;
+            while ((entry = staged.firstEntry()) != null && entry.getKey() <= watermark) {
+                if (staged.remove(entry.getKey()) != null) {
+                    append(entry.getValue());
+                    latest = entry.getKey();
+                }
+            }
+        }
+        if (latest >= 0) {
+            long released = latest;
+            listeners.forEach(listener -> listener.accept(released));
+        }
+        return staged.isEmpty();
+    }
+
+    private void append(UserViewChange change) {
+        if (size > 0 && change.position() <= ring[(start + size - 1) % capacity].position()) {
+            // 重放产生的重复变更
+            return;
+        }
+        if (size == capacity) {
+            evictedUpTo = ring[start].position();
+            ring[start] = null;
+            start = (start + 1) % capacity;
+            size--;
+        }
+        ring[(start + size) % capacity] = change;
+        size++;
+    }
+
+    /**
+     * 读取指定位置之后的变更
+     *
+     * @throws ChangeFeedExpiredException 续读位置之后的部分变更已被淘汰
+     */
+    public synchronized List<UserViewChange> readAfter(long position, int limit) {
+        if (position < evictedUpTo) {
+            throw new ChangeFeedExpiredException(position, evictedUpTo);
+        }
+        // 二分查找第一个位置大于 position 的变更
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ring[(start + mid) % capacity].position() <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<UserViewChange> changes = new ArrayList<>(Math.min(limit, size - low));
+        for (int i = low; i < size && changes.size() < limit; i++) {
+            changes.add(ring[(start + i) % capacity]);
+        }
+        return changes;
+    }
+
+    /**
+     * 缓冲区中最新变更的位置
+     */
+    public synchronized long getLatestPosition() {
+        return size == 0 ? evictedUpTo : ring[(start + size - 1) % capacity].position();
+    }
+
+    /**
+     * 订阅新变更到达的通知（参数为最新变更位置），监听器应尽快返回
+     */
+    public void addListener(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Long> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 续读位置已超出缓冲区
+     */
+    public static class ChangeFeedExpiredException extends RuntimeException {
+        public ChangeFeedExpiredException(long position, long evictedUpTo) {
+            super("变更流位置 " + position + " 已过期，最早可续读位置为 " + evictedUpTo);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.eventbridge.query.application.eventhandlers;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+import com.eventbridge.common.event.EventLanes;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.query.application.search.LuceneUserIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * 用户全文索引投影
+ * 与 UserEventRegistrar 的处理器并列注册到 EventProcessorRegistry（RabbitMQ 事件和事件日志回放），
+ * 同时监听本地事务事件；两条路径重复送达的事件由索引按事件位置幂等处理
+ */
+@Component
+@ConditionalOnProperty(prefix = "eventbridge.query.lucene", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LuceneUserProjection {
+
+    public static final String NAME = "lucene-users";
+    private static final List<String> EVENT_TYPES = List.of("UserCreated", "UserEmailUpdated", "UserDeactivated");
+
+    private final EventProcessorRegistry eventProcessorRegistry;
+    private final EventLanes eventLanes;
+    private final LuceneUserIndex luceneUserIndex;
+
+    public LuceneUserProjection(EventProcessorRegistry eventProcessorRegistry,
+                                EventLanes eventLanes,
+                                LuceneUserIndex luceneUserIndex) {
+        this.eventProcessorRegistry = eventProcessorRegistry;
+        this.eventLanes = eventLanes;
+        this.luceneUserIndex = luceneUserIndex;
+    }
+
+    @PostConstruct
+    public void registerProjections() {
+        EVENT_TYPES.forEach(eventType -> eventProcessorRegistry.registerProjection(NAME, eventType, luceneUserIndex::apply));
+    }
+
+    @PreDestroy
+    public void unregisterProjections() {
+        EVENT_TYPES.forEach(eventType -> eventProcessorRegistry.unregisterProjection(NAME, eventType));
+    }
+
+    /**
+     * 本地事件：命令事务提交后提交到事件所属的分发通道，保持同一用户的事件顺序
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT,
+            classes = {UserCreatedEvent.class, UserEmailUpdatedEvent.class, UserDeactivatedEvent.class})
+    public void handleUserEvent(DomainEvent event) {
+        eventLanes.submit(event, () -> luceneUserIndex.apply(event));
+    }
+}
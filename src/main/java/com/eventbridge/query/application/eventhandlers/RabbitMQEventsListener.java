@@ -1,55 +1,194 @@
 package com.eventbridge.query.infrastructure.events;
 
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.common.event.DomainEventTypes;
+import com.eventbridge.common.event.EventCoalescer;
+import com.eventbridge.common.event.EventEnvelope;
+import com.eventbridge.common.jfr.DedupHitJfrEvent;
+import com.eventbridge.common.jfr.RetryJfrEvent;
+import com.eventbridge.query.application.projection.ProjectionTracker;
 import com.eventbridge.command.domain.events.DomainEvent;
-import com.eventbridge.command.domain.events.UserCreatedEvent;
-import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
-import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.config.QueryDataSourceConfig;
 import com.eventbridge.config.RabbitMQConfig;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * user-events-queue 消费端
+ * 事件交给所属分发通道（见 EventLanes），每个事件在通道线程上的读模型事务内处理；
+ * 监听线程等待处理完成后才返回，消息随之确认。处理器失败、通道拒绝或事务提交失败时异常抛给监听容器，
+ * 由容器的重试拦截器有限次重试，仍失败则进入死信队列（见 RabbitMQConfig）
+ */
 @Service
-@Transactional
 public class RabbitMQEventsListener {
 
     private final EventProcessorRegistry eventProcessorRegistry;
     private final ObjectMapper rabbitMQObjectMapper;
+    private final ListenerConsumerAutoscaler consumerAutoscaler;
+    private final ProjectionTracker projectionTracker;
+    private final TransactionTemplate transactionTemplate;
 
     public RabbitMQEventsListener(EventProcessorRegistry eventProcessorRegistry,
-                                  ObjectMapper rabbitMQObjectMapper) {
+                                  ObjectMapper rabbitMQObjectMapper,
+                                  ListenerConsumerAutoscaler consumerAutoscaler,
+                                  ProjectionTracker projectionTracker,
+                                  @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager) {
         this.eventProcessorRegistry = eventProcessorRegistry;
         this.rabbitMQObjectMapper = rabbitMQObjectMapper;
+        this.consumerAutoscaler = consumerAutoscaler;
+        this.projectionTracker = projectionTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @RabbitListener(queues = RabbitMQConfig.USER_EVENTS_QUEUE)
-    public void handleUserEvent(Object message,
+    @RabbitListener(id = RabbitMQConfig.USER_EVENTS_LISTENER_ID, queues = RabbitMQConfig.USER_EVENTS_QUEUE)
+    public void handleUserEvent(Message message,
                                 @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
         System.out.println("📥 [QUERY-RABBITMQ] 接收到 RabbitMQ 消息，路由键: " + routingKey);
 
+        long started = System.nanoTime();
+        recordRetry(message);
         try {
+            if (EventEnvelope.isEnvelope(message)) {
+                handleEnvelope(message);
+                return;
+            }
+            if (skipByHeaders(message)) {
+                return;
+            }
             DomainEvent event = convertToDomainEvent(message);
             if (event != null) {
                 System.out.println("🔄 [QUERY-RABBITMQ] 成功转换事件: " + event.getEventType() + " - " + event.getAggregateId());
-                eventProcessorRegistry.process(event.getEventType(), event);
-                System.out.println("✅ [QUERY-RABBITMQ] 事件处理成功: " + event.getEventType());
+                eventProcessorRegistry.dispatch(event.getEventType(), event, List.of(), transactionTemplate).join();
+                System.out.println("✅ [QUERY-RABBITMQ] 事件处理完成: " + event.getEventType());
             } else {
                 System.err.println("❌ [QUERY-RABBITMQ] 无法转换消息为 DomainEvent: " +
                         (message != null ? message.getClass().getName() : "null"));
             }
+        } catch (CompletionException e) {
+            // 未处理完成：不确认消息，交给监听容器重试，重试耗尽后进入死信队列
+            System.err.println("❌ [QUERY-RABBITMQ] 事件处理未完成，消息将重试: " + e.getCause());
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ [QUERY-RABBITMQ] 处理消息失败: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            // 包含通道排队和读模型事务的完整处理耗时
+            consumerAutoscaler.recordProcessingTime(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * 记录一次分发重试：监听容器重试拦截器在监听线程上的重试（stage=listener），
+     * 或之前处理未完成（未确认）的消息被 broker 重新投递（stage=redelivery）
+     */
+    private void recordRetry(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        RetryContext retryContext = RetrySynchronizationManager.getContext();
+        boolean retried = retryContext != null && retryContext.getRetryCount() > 0;
+        if (!retried && !Boolean.TRUE.equals(properties.isRedelivered())) {
+            return;
+        }
+        RetryJfrEvent retry = new RetryJfrEvent();
+        if (retry.shouldCommit()) {
+            Object eventType = properties.getHeader(RabbitMQConfig.EVENT_TYPE_HEADER);
+            Object eventId = properties.getHeader(RabbitMQConfig.EVENT_ID_HEADER);
+            retry.eventType = eventType != null ? eventType.toString() : properties.getReceivedRoutingKey();
+            retry.eventId = eventId != null ? eventId.toString() : null;
+            if (retried) {
+                Throwable lastError = retryContext.getLastThrowable();
+                retry.stage = "listener";
+                retry.attempt = retryContext.getRetryCount() + 1;
+                retry.reason = lastError != null ? String.valueOf(rootCause(lastError).getMessage()) : "listener retry";
+            } else {
+                // 仲裁队列会携带投递次数，经典队列只知道是重投
+                Object deliveryCount = properties.getHeader("x-delivery-count");
+                retry.stage = "redelivery";
+                retry.attempt = deliveryCount instanceof Number count ? count.intValue() + 1 : 2;
+                retry.reason = "broker redelivery";
+            }
+            retry.commit();
+        }
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
         }
+        return cause;
+    }
+
+    /**
+     * 根据消息头判断是否可以跳过：重复投递或没有处理器的事件不解析消息体。
+     * 没有事件元数据头的消息（旧版本发布方）照常解析
+     */
+    private boolean skipByHeaders(Message message) {
+        Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        Object eventId = headers.get(RabbitMQConfig.EVENT_ID_HEADER);
+        Object eventType = headers.get(RabbitMQConfig.EVENT_TYPE_HEADER);
+        if (eventId == null || eventType == null) {
+            return false;
+        }
+        if (eventProcessorRegistry.shouldProcess(eventId.toString(), eventType.toString())) {
+            return false;
+        }
+        System.out.println("⏭️ [QUERY-RABBITMQ] 跳过重复或无处理器的事件（未解析消息体）: " + eventType + " - " + eventId);
+        if (eventProcessorRegistry.hasProcessor(eventType.toString())) {
+            DedupHitJfrEvent dedupHit = new DedupHitJfrEvent();
+            if (dedupHit.shouldCommit()) {
+                dedupHit.eventType = eventType.toString();
+                dedupHit.eventId = eventId.toString();
+                dedupHit.source = "header";
+                dedupHit.commit();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解包事件信封，按发布顺序逐个分发
+     */
+    private void handleEnvelope(Message message) throws IOException {
+        List<Map<String, Object>> maps = EventEnvelope.unpack(message, rabbitMQObjectMapper);
+        List<DomainEvent> events = new ArrayList<>(maps.size());
+        for (Map<String, Object> map : maps) {
+            DomainEvent event = convertFromMap(map);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        // 合并同一聚合的冗余事件，减少读模型写入
+        List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(events);
+        System.out.println("📦 [QUERY-RABBITMQ] 接收到事件信封: " + maps.size() + " 个事件，合并后 " + folded.size() + " 个");
+        List<CompletableFuture<Void>> pending = new ArrayList<>(folded.size());
+        for (EventCoalescer.Folded item : folded) {
+            DomainEvent event = item.event();
+            projectionTracker.registerFolded(event, item.absorbed());
+            pending.add(eventProcessorRegistry.dispatch(event.getEventType(), event, item.absorbed(), transactionTemplate)
+                    .whenComplete((result, error) -> projectionTracker.clearFolded(event)));
+        }
+        // 信封内全部事件处理完成后才确认消息
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
     }
 
     @SuppressWarnings("unchecked")
@@ -144,17 +283,12 @@ public class RabbitMQEventsListener {
             }
 
             // 根据 eventType 转换为具体的事件类型
-            switch (eventType) {
-                case "UserCreated":
-                    return rabbitMQObjectMapper.convertValue(map, UserCreatedEvent.class);
-                case "UserEmailUpdated":
-                    return rabbitMQObjectMapper.convertValue(map, UserEmailUpdatedEvent.class);
-                case "UserDeactivated":
-                    return rabbitMQObjectMapper.convertValue(map, UserDeactivatedEvent.class);
-                default:
-                    System.err.println("❌ [QUERY-RABBITMQ] 未知的事件类型: " + eventType);
-                    return null;
+            Class<? extends DomainEvent> eventClass = DomainEventTypes.resolve(eventType);
+            if (eventClass == null) {
+                System.err.println("❌ [QUERY-RABBITMQ] 未知的事件类型: " + eventType);
+                return null;
             }
+            return rabbitMQObjectMapper.convertValue(map, eventClass);
         } catch (Exception e) {
             System.err.println("❌ [QUERY-RABBITMQ] 从 Map 转换事件失败: " + e.getMessage());
             e.printStackTrace();
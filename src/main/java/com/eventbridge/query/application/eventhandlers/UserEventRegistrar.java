@@ -9,6 +9,11 @@ import com.eventbridge.command.domain.events.UserDeactivatedEvent;
 import com.eventbridge.query.infrastructure.model.UserView;
 import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
 import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.application.projection.ProjectedUserIds;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.application.projection.UserViewWriter;
+import com.eventbridge.query.application.changefeed.UserViewChange;
+import com.eventbridge.query.application.changefeed.UserViewChangeFeed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 
@@ -21,12 +26,24 @@ public class UserEventRegistrar {
 
     private final EventProcessorRegistry eventProcessorRegistry;
     private final UserViewRepository userViewRepository;
+    private final ProjectionTracker projectionTracker;
+    private final UserViewChangeFeed changeFeed;
+    private final ProjectedUserIds projectedUserIds;
+    private final UserViewWriter userViewWriter;
 
     @Autowired
     public UserEventRegistrar(EventProcessorRegistry eventProcessorRegistry,
-                              UserViewRepository userViewRepository) {
+                              UserViewRepository userViewRepository,
+                              ProjectionTracker projectionTracker,
+                              UserViewChangeFeed changeFeed,
+                              ProjectedUserIds projectedUserIds,
+                              UserViewWriter userViewWriter) {
         this.eventProcessorRegistry = eventProcessorRegistry;
         this.userViewRepository = userViewRepository;
+        this.projectionTracker = projectionTracker;
+        this.changeFeed = changeFeed;
+        this.projectedUserIds = projectedUserIds;
+        this.userViewWriter = userViewWriter;
     }
 
     /**
@@ -89,8 +106,9 @@ public class UserEventRegistrar {
 
         try {
             // 幂等性检查：如果用户视图已存在，则跳过创建
-            if (userViewRepository.existsById(userId)) {
+            if (projectedUserIds.exists(userId, userViewRepository::existsById)) {
                 System.out.println("⏭️ [EVENT-REGISTRY] 用户视图已存在，跳过创建: " + userId);
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 return;
             }
 
@@ -102,14 +120,19 @@ public class UserEventRegistrar {
                     userCreatedEvent.getCreatedAt(),
                     UserStatus.ACTIVE
             );
+            // 已确认读模型中不存在，直接插入而不是 merge
+            userView.markNew();
 
             // 尝试保存，捕获可能的重复插入异常
             try {
-                userViewRepository.save(userView);
+                userViewWriter.save("registry", event, userView);
                 System.out.println("✅ [EVENT-REGISTRY] 用户视图创建成功: " + userCreatedEvent.getUsername() + " (ID: " + userId + ")");
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                changeFeed.publish(event, UserViewChange.Type.CREATED, userView);
             } catch (DataIntegrityViolationException e) {
                 // 处理主键冲突异常
                 System.out.println("⚠️ [EVENT-REGISTRY] 用户视图已存在（捕获异常）: " + userId);
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 // 忽略重复插入异常
             } catch (Exception e) {
                 System.err.println("❌ [EVENT-REGISTRY] 保存用户视图失败: " + e.getMessage());
@@ -143,14 +166,17 @@ public class UserEventRegistrar {
                     userView.updateEmail(emailUpdatedEvent.getNewEmail());
 
                     try {
-                        userViewRepository.save(userView);
+                        userViewWriter.save("registry", event, userView);
                         System.out.println("✅ [EVENT-REGISTRY] 用户邮箱更新成功: " + userId);
                         System.out.println("   📧 邮箱从 '" + oldEmail + "' 更新为 '" + emailUpdatedEvent.getNewEmail() + "'");
+                        projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                        changeFeed.publish(event, UserViewChange.Type.EMAIL_UPDATED, userView);
                     } catch (Exception e) {
                         System.err.println("❌ [EVENT-REGISTRY] 保存邮箱更新失败: " + e.getMessage());
                     }
                 } else {
                     System.out.println("⏭️ [EVENT-REGISTRY] 邮箱未变化，跳过更新: " + userId);
+                    projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 }
             } else {
                 System.out.println("⚠️ [EVENT-REGISTRY] 用户视图未找到，无法更新邮箱: " + userId);
@@ -182,14 +208,17 @@ public class UserEventRegistrar {
                     userView.deactivate();
 
                     try {
-                        userViewRepository.save(userView);
+                        userViewWriter.save("registry", event, userView);
                         System.out.println("✅ [EVENT-REGISTRY] 用户停用成功: " + userId);
                         System.out.println("   🔄 状态从 " + oldStatus + " 更新为 " + userView.getStatus());
+                        projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                        changeFeed.publish(event, UserViewChange.Type.DEACTIVATED, userView);
                     } catch (Exception e) {
                         System.err.println("❌ [EVENT-REGISTRY] 保存停用状态失败: " + e.getMessage());
                     }
                 } else {
                     System.out.println("⏭️ [EVENT-REGISTRY] 用户已是停用状态，跳过操作: " + userId);
+                    projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 }
             } else {
                 System.out.println("⚠️ [EVENT-REGISTRY] 用户视图未找到，无法停用: " + userId);
@@ -280,7 +309,7 @@ public class UserEventRegistrar {
             String userId = event.getUserId();
 
             // 幂等性检查
-            if (userViewRepository.existsById(userId)) {
+            if (projectedUserIds.exists(userId, userViewRepository::existsById)) {
                 System.out.println("⏭️ [EVENT-REGISTRY] 用户视图已存在（安全处理）: " + userId);
                 return false;
             }
@@ -292,8 +321,10 @@ public class UserEventRegistrar {
                     event.getCreatedAt(),
                     UserStatus.ACTIVE
             );
+            // 已确认读模型中不存在，直接插入而不是 merge
+            userView.markNew();
 
-            userViewRepository.save(userView);
+            userViewWriter.save("registry", event, userView);
             System.out.println("✅ [EVENT-REGISTRY] 用户视图安全创建成功: " + event.getUsername());
             return true;
 
@@ -319,4 +350,4 @@ public class UserEventRegistrar {
     public long getUserViewCount() {
         return userViewRepository.count();
     }
-}
\ No newline at end of file
+}
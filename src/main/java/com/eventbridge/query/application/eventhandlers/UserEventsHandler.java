@@ -1,8 +1,9 @@
 package com.eventbridge.query.application.eventhandlers;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -12,38 +13,66 @@ import com.eventbridge.command.domain.events.UserDeactivatedEvent;
 import com.eventbridge.query.infrastructure.model.UserView;
 import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
 import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.application.projection.ProjectedUserIds;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.application.projection.UserViewWriter;
+import com.eventbridge.query.application.changefeed.UserViewChange;
+import com.eventbridge.query.application.changefeed.UserViewChangeFeed;
+import com.eventbridge.config.QueryDataSourceConfig;
+import com.eventbridge.common.event.EventLanes;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
-@Transactional
 public class UserEventsHandler {
 
     private final UserViewRepository userViewRepository;
+    private final ProjectionTracker projectionTracker;
+    private final UserViewChangeFeed changeFeed;
+    private final ProjectedUserIds projectedUserIds;
+    private final UserViewWriter userViewWriter;
+    private final EventLanes eventLanes;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public UserEventsHandler(UserViewRepository userViewRepository) {
+    public UserEventsHandler(UserViewRepository userViewRepository,
+                             ProjectionTracker projectionTracker,
+                             UserViewChangeFeed changeFeed,
+                             ProjectedUserIds projectedUserIds,
+                             EventLanes eventLanes,
+                             UserViewWriter userViewWriter,
+                             @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager) {
         this.userViewRepository = userViewRepository;
+        this.projectionTracker = projectionTracker;
+        this.changeFeed = changeFeed;
+        this.projectedUserIds = projectedUserIds;
+        this.userViewWriter = userViewWriter;
+        this.eventLanes = eventLanes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * 处理用户创建事件 - 本地事务事件监听器
      * 使用 @TransactionalEventListener 确保在命令端事务提交后处理
-     * 使用 @Async 异步处理，不阻塞命令端
+     * 提交到事件类型所属的分发通道（见 EventLanes）异步处理，不阻塞命令端
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    @Async("taskExecutor")
     public void handleUserCreated(UserCreatedEvent event) {
+        eventLanes.submit(event, () -> transactionTemplate.executeWithoutResult(status -> applyUserCreated(event)));
+    }
+
+    private void applyUserCreated(UserCreatedEvent event) {
         String userId = event.getUserId();
         System.out.println("🔄 [QUERY-LOCAL] 开始处理 UserCreatedEvent: " + userId);
         System.out.println("   📝 事件详情 - 用户名: " + event.getUsername() + ", 邮箱: " + event.getEmail());
 
         try {
             // 幂等性检查：如果用户视图已存在，则跳过创建
-            if (userViewRepository.existsById(userId)) {
+            if (projectedUserIds.exists(userId, userViewRepository::existsById)) {
                 System.out.println("⏭️ [QUERY-LOCAL] 用户视图已存在，跳过创建: " + userId);
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 return;
             }
 
@@ -55,14 +84,19 @@ public class UserEventsHandler {
                     event.getCreatedAt(),
                     UserStatus.ACTIVE
             );
+            // 已确认读模型中不存在，直接插入而不是 merge
+            userView.markNew();
 
             // 尝试保存，捕获可能的重复插入异常
             try {
-                userViewRepository.save(userView);
+                userViewWriter.save("local", event, userView);
                 System.out.println("✅ [QUERY-LOCAL] 用户视图创建成功: " + event.getUsername() + " (ID: " + userId + ")");
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                changeFeed.publish(event, UserViewChange.Type.CREATED, userView);
             } catch (DataIntegrityViolationException e) {
                 // 处理主键冲突异常（虽然我们做了存在性检查，但并发情况下仍可能发生）
                 System.out.println("⚠️ [QUERY-LOCAL] 用户视图已存在（捕获异常）: " + userId);
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 // 忽略重复插入异常，这是最终一致性中的正常情况
             } catch (Exception e) {
                 System.err.println("❌ [QUERY-LOCAL] 保存用户视图失败: " + e.getMessage());
@@ -79,8 +113,11 @@ public class UserEventsHandler {
      * 处理用户邮箱更新事件 - 本地事务事件监听器
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    @Async("taskExecutor")
     public void handleUserEmailUpdated(UserEmailUpdatedEvent event) {
+        eventLanes.submit(event, () -> transactionTemplate.executeWithoutResult(status -> applyUserEmailUpdated(event)));
+    }
+
+    private void applyUserEmailUpdated(UserEmailUpdatedEvent event) {
         String userId = event.getUserId();
         System.out.println("🔄 [QUERY-LOCAL] 开始处理 UserEmailUpdatedEvent: " + userId);
         System.out.println("   📝 事件详情 - 新邮箱: " + event.getNewEmail());
@@ -96,14 +133,17 @@ public class UserEventsHandler {
                     userView.updateEmail(event.getNewEmail());
 
                     try {
-                        userViewRepository.save(userView);
+                        userViewWriter.save("local", event, userView);
                         System.out.println("✅ [QUERY-LOCAL] 用户邮箱更新成功: " + userId);
                         System.out.println("   📧 邮箱从 '" + oldEmail + "' 更新为 '" + event.getNewEmail() + "'");
+                        projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                        changeFeed.publish(event, UserViewChange.Type.EMAIL_UPDATED, userView);
                     } catch (Exception e) {
                         System.err.println("❌ [QUERY-LOCAL] 保存邮箱更新失败: " + e.getMessage());
                     }
                 } else {
                     System.out.println("⏭️ [QUERY-LOCAL] 邮箱未变化，跳过更新: " + userId);
+                    projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 }
             } else {
                 System.out.println("⚠️ [QUERY-LOCAL] 用户视图未找到，无法更新邮箱: " + userId);
@@ -120,8 +160,11 @@ public class UserEventsHandler {
      * 处理用户停用事件 - 本地事务事件监听器
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    @Async("taskExecutor")
     public void handleUserDeactivated(UserDeactivatedEvent event) {
+        eventLanes.submit(event, () -> transactionTemplate.executeWithoutResult(status -> applyUserDeactivated(event)));
+    }
+
+    private void applyUserDeactivated(UserDeactivatedEvent event) {
         String userId = event.getUserId();
         System.out.println("🔄 [QUERY-LOCAL] 开始处理 UserDeactivatedEvent: " + userId);
 
@@ -136,14 +179,17 @@ public class UserEventsHandler {
                     userView.deactivate();
 
                     try {
-                        userViewRepository.save(userView);
+                        userViewWriter.save("local", event, userView);
                         System.out.println("✅ [QUERY-LOCAL] 用户停用成功: " + userId);
                         System.out.println("   🔄 状态从 " + oldStatus + " 更新为 " + userView.getStatus());
+                        projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+                        changeFeed.publish(event, UserViewChange.Type.DEACTIVATED, userView);
                     } catch (Exception e) {
                         System.err.println("❌ [QUERY-LOCAL] 保存停用状态失败: " + e.getMessage());
                     }
                 } else {
                     System.out.println("⏭️ [QUERY-LOCAL] 用户已是停用状态，跳过操作: " + userId);
+                    projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
                 }
             } else {
                 System.out.println("⚠️ [QUERY-LOCAL] 用户视图未找到，无法停用: " + userId);
@@ -177,7 +223,7 @@ public class UserEventsHandler {
                     userView.setLastUpdated(LocalDateTime.now());
 
                     try {
-                        userViewRepository.save(userView);
+                        userViewWriter.save("local", event, userView);
                         System.out.println("✅ [QUERY-LOCAL] 用户激活成功: " + userId);
                         System.out.println("   🔄 状态从 " + oldStatus + " 更新为 " + userView.getStatus());
                     } catch (Exception e) {
@@ -245,7 +291,7 @@ public class UserEventsHandler {
      */
     public boolean safeCreateUserView(UserCreatedEvent event) {
         try {
-            if (userViewRepository.existsById(event.getUserId())) {
+            if (projectedUserIds.exists(event.getUserId(), userViewRepository::existsById)) {
                 System.out.println("⏭️ 用户视图已存在: " + event.getUserId());
                 return false;
             }
@@ -257,8 +303,10 @@ public class UserEventsHandler {
                     event.getCreatedAt(),
                     UserStatus.ACTIVE
             );
+            // 已确认读模型中不存在，直接插入而不是 merge
+            userView.markNew();
 
-            userViewRepository.save(userView);
+            userViewWriter.save("local", event, userView);
             System.out.println("✅ 用户视图安全创建成功: " + event.getUsername());
             return true;
 
@@ -270,4 +318,4 @@ public class UserEventsHandler {
             return false;
         }
     }
-}
\ No newline at end of file
+}
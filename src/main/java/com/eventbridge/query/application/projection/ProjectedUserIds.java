@@ -0,0 +1,109 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.common.bloom.ScalableBloomFilter;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+
+/**
+ * 已投影用户 ID 的布隆过滤器
+ *
+ * 创建事件绝大多数是新用户，existsById 几乎总是返回 false。启动时从 user_views 加载全部 ID，
+ * 之后由投影写入维护（见 UserViewWriter），过滤器判定"一定不存在"时跳过存在性查询。
+ * 加载完成之前一律走数据库查询；用户视图不会被删除，过滤器只会误判存在，不会漏判。
+ * 内存占用、估算误判率和实测误判率以 eventbridge.projection.bloom.* 指标暴露。
+ */
+@Component
+public class ProjectedUserIds {
+
+    private final UserViewRepository userViewRepository;
+    private final ScalableBloomFilter filter;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    private final Counter skipped;
+    private final Counter confirmed;
+    private final Counter falsePositives;
+
+    public ProjectedUserIds(UserViewRepository userViewRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${eventbridge.query.bloom.enabled:true}") boolean enabled,
+                            @Value("${eventbridge.query.bloom.initial-capacity:100000}") long initialCapacity,
+                            @Value("${eventbridge.query.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userViewRepository = userViewRepository;
+        this.enabled = enabled;
+        this.filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+
+        skipped = meterRegistry.counter("eventbridge.projection.bloom.checks", "result", "absent");
+        confirmed = meterRegistry.counter("eventbridge.projection.bloom.checks", "result", "present");
+        falsePositives = meterRegistry.counter("eventbridge.projection.bloom.checks", "result", "false-positive");
+        Gauge.builder("eventbridge.projection.bloom.memory", filter, ScalableBloomFilter::memoryBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("eventbridge.projection.bloom.size", filter, ScalableBloomFilter::size)
+                .register(meterRegistry);
+        Gauge.builder("eventbridge.projection.bloom.stages", filter, ScalableBloomFilter::stageCount)
+                .register(meterRegistry);
+        Gauge.builder("eventbridge.projection.bloom.fpp.estimated", filter, ScalableBloomFilter::estimatedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("eventbridge.projection.bloom.fpp.observed", this, ProjectedUserIds::observedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 从读模型加载全部用户 ID；加载期间投影写入的 ID 直接加入过滤器，加载完成后才启用快速路径
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        userViewRepository.findAllUserIds().forEach(filter::add);
+        ready = true;
+        System.out.println("🌸 [PROJECTION] 用户 ID 布隆过滤器已加载: " + filter.size() + " 个 ID，"
+                + filter.memoryBytes() / 1024 + " KB，耗时 " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * 投影写入用户视图后登记其 ID
+     */
+    public void add(String userId) {
+        if (enabled) {
+            filter.add(userId);
+        }
+    }
+
+    /**
+     * 判断用户视图是否存在：过滤器判定一定不存在时直接返回 false，否则交给 lookup 查询确认
+     */
+    public boolean exists(String userId, Predicate<String> lookup) {
+        if (ready && !filter.mightContain(userId)) {
+            skipped.increment();
+            return false;
+        }
+        boolean exists = lookup.test(userId);
+        if (ready) {
+            (exists ? confirmed : falsePositives).increment();
+        }
+        return exists;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 实测误判率：过滤器判定可能存在但实际不存在的次数 / 实际不存在的检查次数
+     */
+    public double observedFalsePositiveRate() {
+        double negatives = skipped.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
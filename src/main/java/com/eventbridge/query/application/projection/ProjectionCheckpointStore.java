@@ -0,0 +1,104 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.config.QueryDataSourceConfig;
+import com.eventbridge.query.infrastructure.model.ProjectionCheckpoint;
+import com.eventbridge.query.infrastructure.persistence.ProjectionCheckpointRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 投影检查点存储
+ *
+ * 检查点写入加入调用方的查询端事务（REQUIRED），与投影写入一起提交或回滚；
+ * 按批次写入：累计 batch-size 个事件或距上次写入超过 interval-ms 才真正更新一次。
+ */
+@Component
+@Transactional(QueryDataSourceConfig.TRANSACTION_MANAGER)
+public class ProjectionCheckpointStore {
+
+    private final ProjectionCheckpointRepository checkpointRepository;
+
+    @Value("${eventbridge.query.checkpoint.batch-size:100}")
+    private int batchSize;
+
+    @Value("${eventbridge.query.checkpoint.interval-ms:1000}")
+    private long intervalMs;
+
+    private final Map<String, AtomicInteger> pendingCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lastWrittenAt = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> persistedPositions = new ConcurrentHashMap<>();
+
+    public ProjectionCheckpointStore(ProjectionCheckpointRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    /**
+     * 确保检查点记录存在，在独立事务中执行，避免并发插入冲突影响投影事务
+     */
+    @Transactional(transactionManager = QueryDataSourceConfig.TRANSACTION_MANAGER, propagation = Propagation.REQUIRES_NEW)
+    public long ensureExists(String projectionName) {
+        ProjectionCheckpoint checkpoint = checkpointRepository.findById(projectionName)
+                .orElseGet(() -> checkpointRepository.save(new ProjectionCheckpoint(projectionName, 0)));
+        persistedPositions.computeIfAbsent(projectionName, name -> new AtomicLong())
+                .accumulateAndGet(checkpoint.getPosition(), Math::max);
+        return checkpoint.getPosition();
+    }
+
+    /**
+     * 在当前事务中按批次推进检查点
+     */
+    public void maybeCheckpoint(String projectionName, long position) {
+        AtomicInteger count = pendingCounts.computeIfAbsent(projectionName, name -> new AtomicInteger());
+        AtomicLong lastAt = lastWrittenAt.computeIfAbsent(projectionName, name -> new AtomicLong());
+        long now = System.currentTimeMillis();
+
+        if (count.incrementAndGet() < batchSize && now - lastAt.get() < intervalMs) {
+            return;
+        }
+        count.set(0);
+        lastAt.set(now);
+        advance(projectionName, position);
+    }
+
+    /**
+     * 只前移检查点
+     */
+    public void advance(String projectionName, long position) {
+        AtomicLong persisted = persistedPositions.computeIfAbsent(projectionName, name -> new AtomicLong());
+        if (position <= persisted.get()) {
+            return;
+        }
+        checkpointRepository.advance(projectionName, position, LocalDateTime.now());
+        persisted.accumulateAndGet(position, Math::max);
+    }
+
+    /**
+     * 强制设置检查点（回退或快进）
+     */
+    public void reset(String projectionName, long position) {
+        checkpointRepository.reset(projectionName, position, LocalDateTime.now());
+        persistedPositions.computeIfAbsent(projectionName, name -> new AtomicLong()).set(position);
+    }
+
+    @Transactional(transactionManager = QueryDataSourceConfig.TRANSACTION_MANAGER, readOnly = true)
+    public Optional<Long> findPosition(String projectionName) {
+        return checkpointRepository.findById(projectionName).map(ProjectionCheckpoint::getPosition);
+    }
+
+    /**
+     * 最近一次写入（或加载）的检查点位置，不访问数据库
+     */
+    public long getPersistedPosition(String projectionName) {
+        AtomicLong persisted = persistedPositions.get(projectionName);
+        return persisted == null ? 0 : persisted.get();
+    }
+}
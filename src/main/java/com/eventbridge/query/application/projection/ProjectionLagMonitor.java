@@ -0,0 +1,85 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.command.application.CommandThrottle;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 投影积压监控
+ *
+ * 定期比较事件日志中最新提交的位置与 UserView 投影水位线，得到积压事件数和投影吞吐，
+ * 交给 CommandThrottle 调整命令放行速率，并作为健康检查（/actuator/health 中的 projectionLag）对外暴露：
+ * 低于限流阈值为 UP，限流中为 THROTTLED，达到 max-lag 为 OUT_OF_SERVICE。
+ */
+@Component("projectionLag")
+public class ProjectionLagMonitor implements HealthIndicator {
+
+    public static final Status THROTTLED = new Status("THROTTLED", "投影积压，命令端限流中");
+
+    private final EventStore eventStore;
+    private final ProjectionTracker projectionTracker;
+    private final CommandThrottle commandThrottle;
+
+    private volatile Sample last;
+
+    public ProjectionLagMonitor(EventStore eventStore, ProjectionTracker projectionTracker,
+                                CommandThrottle commandThrottle) {
+        this.eventStore = eventStore;
+        this.projectionTracker = projectionTracker;
+        this.commandThrottle = commandThrottle;
+    }
+
+    @Scheduled(fixedDelayString = "${eventbridge.command.backpressure.sample-interval-ms:1000}")
+    public void sample() {
+        long head = eventStore.getHeadPosition();
+        long projected = projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+        long now = System.nanoTime();
+
+        Sample previous = last;
+        double projectionRate = 0;
+        if (previous != null && now > previous.nanos) {
+            projectionRate = (projected - previous.projected) * 1_000_000_000.0 / (now - previous.nanos);
+        }
+        Sample current = new Sample(head, projected, Math.max(0, projectionRate), now);
+        last = current;
+        commandThrottle.update(current.lag(), current.projectionRate);
+    }
+
+    public long getLag() {
+        Sample current = last;
+        return current == null ? 0 : current.lag();
+    }
+
+    @Override
+    public Health health() {
+        Sample current = last;
+        if (current == null) {
+            return Health.unknown().build();
+        }
+        Status status;
+        if (current.lag() >= commandThrottle.getMaxLag()) {
+            status = Status.OUT_OF_SERVICE;
+        } else if (commandThrottle.isThrottling()) {
+            status = THROTTLED;
+        } else {
+            status = Status.UP;
+        }
+        return Health.status(status)
+                .withDetail("headPosition", current.head)
+                .withDetail("projectedPosition", current.projected)
+                .withDetail("lag", current.lag())
+                .withDetail("projectionRate", Math.round(current.projectionRate))
+                .withDetail("allowedCommandRate", Math.round(commandThrottle.getAllowedRate()))
+                .build();
+    }
+
+    private record Sample(long head, long projected, double projectionRate, long nanos) {
+        long lag() {
+            return Math.max(0, head - projected);
+        }
+    }
+}
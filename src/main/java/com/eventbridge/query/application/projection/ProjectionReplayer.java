@@ -0,0 +1,301 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.common.event.EventCoalescer;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.config.QueryDataSourceConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 从事件日志回放事件到查询端投影
+ * 启动时只回放快照位置之后的尾部事件；每批事件先经 EventCoalescer 合并，再在一个查询端事务中应用
+ */
+@Component
+public class ProjectionReplayer {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EventStore eventStore;
+    private final EventProcessorRegistry eventProcessorRegistry;
+    private final ProjectionTracker projectionTracker;
+    private final ProjectionCheckpointStore checkpointStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${eventbridge.query.replay-on-startup:true}")
+    private boolean replayOnStartup;
+
+    @Value("${eventbridge.query.projection.stall-max-replays:5}")
+    private int stallMaxReplays;
+
+    private volatile long lastObservedWatermark = -1;
+
+    /**
+     * 当前停滞位置、在该位置已做的回放次数，以及下次回放前还需跳过的检查周期数
+     */
+    private long stalledAt = -1;
+    private int stallReplays;
+    private long stallChecksToSkip;
+
+    private final Map<Long, ParkedEvent> parkedEvents = new ConcurrentSkipListMap<>();
+
+    public ProjectionReplayer(EventStore eventStore,
+                              EventProcessorRegistry eventProcessorRegistry,
+                              ProjectionTracker projectionTracker,
+                              ProjectionCheckpointStore checkpointStore,
+                              @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                              @Qualifier("taskExecutor") TaskExecutor taskExecutor,
+                              MeterRegistry meterRegistry) {
+        this.eventStore = eventStore;
+        this.eventProcessorRegistry = eventProcessorRegistry;
+        this.projectionTracker = projectionTracker;
+        this.checkpointStore = checkpointStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+
+        Gauge.builder("eventbridge.projection.parked", parkedEvents, Map::size)
+                .tag("projection", ProjectionTracker.USER_VIEWS)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用就绪后在后台回放尾部事件，读请求无需等待回放完成
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayTailOnStartup() {
+        if (!replayOnStartup) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            long from = projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+            long head = eventStore.getHeadPosition();
+            if (head <= from) {
+                System.out.println("✅ [PROJECTION] 投影已是最新，无需回放 (position=" + from + ")");
+                return;
+            }
+            System.out.println("⏩ [PROJECTION] 开始回放尾部事件: " + (from + 1) + " - " + head);
+            long started = System.currentTimeMillis();
+            int replayed = replayFrom(from);
+            System.out.println("✅ [PROJECTION] 尾部事件回放完成，共 " + replayed + " 个事件，耗时 "
+                    + (System.currentTimeMillis() - started) + " ms");
+        });
+    }
+
+    /**
+     * 投影停滞自愈
+     * 异步处理可能导致同一用户的更新先于创建执行而被丢弃，水位线因此停在该位置；
+     * 若一个检查周期内水位线没有任何推进且仍落后于事件日志，则从水位线处重新回放。
+     * 同一位置每次回放无效后，等待的检查周期数翻倍；回放 stall-max-replays 次仍无法应用的事件
+     * （例如读模型中缺失对应用户视图的更新）被搁置并跳过，避免积压无限增长，可通过 /api/projections/{name}/parked 查看。
+     * 无法解码的事件日志记录在回放时直接搁置
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.projection.stall-check-interval-ms:10000}",
+            initialDelayString = "${eventbridge.query.projection.stall-check-interval-ms:10000}")
+    public synchronized void recoverStalledProjection() {
+        long watermark = projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+        boolean unchanged = watermark == lastObservedWatermark;
+        lastObservedWatermark = watermark;
+        if (!unchanged || eventStore.getHeadPosition() <= watermark) {
+            return;
+        }
+        if (watermark != stalledAt) {
+            stalledAt = watermark;
+            stallReplays = 0;
+            stallChecksToSkip = 0;
+        }
+        if (stallChecksToSkip > 0) {
+            stallChecksToSkip--;
+            return;
+        }
+        if (stallReplays >= stallMaxReplays) {
+            park(watermark);
+            return;
+        }
+        stallReplays++;
+        stallChecksToSkip = (1L << Math.min(stallReplays - 1, 16)) - 1;
+        System.out.println("🩹 [PROJECTION] 投影进度停滞在位置 " + watermark + "，从该位置重新回放（第 "
+                + stallReplays + "/" + stallMaxReplays + " 次）");
+        replayFrom(watermark);
+    }
+
+    /**
+     * 搁置停滞位置的下一个事件：标记为已应用让水位线越过它，然后继续回放其后的事件
+     */
+    private void park(long watermark) {
+        EventStore.EventPage next = eventStore.readAfter(watermark, 1);
+        if (next.lastPosition() != watermark + 1) {
+            // 事件日志空洞由 ProjectionTracker.resolveGaps 处理
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!next.undecodable().isEmpty()) {
+                park(next.undecodable().get(0));
+                return;
+            }
+            DomainEvent event = next.events().get(0);
+            park(new ParkedEvent(event.getPosition(), event.getEventId(), event.getEventType(), event.getAggregateId(),
+                    stallReplays, "回放 " + stallReplays + " 次仍无法应用", Instant.now()));
+            projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+        });
+        stalledAt = -1;
+        replayFrom(watermark + 1);
+    }
+
+    /**
+     * 无法解码的记录回放多少次都不会成功，直接搁置并跳过
+     */
+    private void park(EventStore.UndecodableEvent undecodable) {
+        park(new ParkedEvent(undecodable.position(), undecodable.eventId(), undecodable.eventType(),
+                undecodable.aggregateId(), 0, "无法解码: " + undecodable.error(), Instant.now()));
+        projectionTracker.markSkipped(ProjectionTracker.USER_VIEWS, undecodable.position());
+    }
+
+    private void park(ParkedEvent parked) {
+        parkedEvents.put(parked.position(), parked);
+        System.err.println("🅿️ [PROJECTION] 事件已搁置: position=" + parked.position() + ", type=" + parked.eventType()
+                + ", aggregate=" + parked.aggregateId() + ", 原因: " + parked.reason());
+    }
+
+    /**
+     * 被搁置（跳过）的事件，按位置升序
+     */
+    public List<ParkedEvent> getParkedEvents() {
+        return List.copyOf(parkedEvents.values());
+    }
+
+    /**
+     * 从当前进度继续回放到事件日志末尾
+     */
+    public void resume(String projectionName) {
+        checkReplayable(projectionName);
+        long from = projectionTracker.getLastAppliedPosition(projectionName);
+        System.out.println("▶️ [PROJECTION] 继续投影 " + projectionName + "，从位置 " + from);
+        taskExecutor.execute(() -> replayFrom(from));
+    }
+
+    /**
+     * 回退到指定位置并重新回放之后的所有事件
+     */
+    public void rewind(String projectionName, long position) {
+        checkReplayable(projectionName);
+        long current = projectionTracker.getLastAppliedPosition(projectionName);
+        if (position < 0 || position > current) {
+            throw new IllegalArgumentException("回退位置必须在 0 到当前位置 " + current + " 之间: " + position);
+        }
+        projectionTracker.restore(projectionName, position);
+        transactionTemplate.executeWithoutResult(status -> checkpointStore.reset(projectionName, position));
+        System.out.println("⏪ [PROJECTION] 投影 " + projectionName + " 回退到位置 " + position);
+        taskExecutor.execute(() -> replayFrom(position));
+    }
+
+    /**
+     * 快进到指定位置，跳过其间的事件（不回放）
+     */
+    public void fastForward(String projectionName, long position) {
+        checkReplayable(projectionName);
+        long current = projectionTracker.getLastAppliedPosition(projectionName);
+        long head = eventStore.getHeadPosition();
+        if (position < current || position > head) {
+            throw new IllegalArgumentException("快进位置必须在当前位置 " + current + " 到最新位置 " + head + " 之间: " + position);
+        }
+        projectionTracker.restore(projectionName, position);
+        transactionTemplate.executeWithoutResult(status -> checkpointStore.reset(projectionName, position));
+        System.out.println("⏩ [PROJECTION] 投影 " + projectionName + " 快进到位置 " + position);
+    }
+
+    private void checkReplayable(String projectionName) {
+        if (!ProjectionTracker.USER_VIEWS.equals(projectionName)) {
+            throw new IllegalArgumentException("不支持回放的投影: " + projectionName);
+        }
+    }
+
+    /**
+     * 回放指定位置之后（不含）的所有事件，同一时间只允许一个回放在执行
+     *
+     * @return 回放的事件数量
+     */
+    public synchronized int replayFrom(long position) {
+        int total = 0;
+        long cursor = position;
+        while (true) {
+            EventStore.EventPage page = eventStore.readAfter(cursor, BATCH_SIZE);
+            if (page.isEmpty()) {
+                return total;
+            }
+            List<DomainEvent> pending = page.events().stream()
+                    .filter(event -> !projectionTracker.isApplied(ProjectionTracker.USER_VIEWS, event.getPosition()))
+                    .toList();
+            List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(pending);
+            List<EventStore.UndecodableEvent> undecodable = page.undecodable().stream()
+                    .filter(record -> !projectionTracker.isApplied(ProjectionTracker.USER_VIEWS, record.position()))
+                    .toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    folded.forEach(this::apply);
+                    undecodable.forEach(this::park);
+                });
+            } catch (RuntimeException e) {
+                // 整批事务提交失败（例如其他节点已写入同一用户视图导致主键冲突）时逐个事件重试，
+                // 单个事件失败不拖累同批其他事件，仍未应用的事件留给停滞自愈
+                System.err.println("⚠️ [PROJECTION] 批量回放失败，改为逐个事件回放: " + e.getMessage());
+                folded.forEach(this::applyAlone);
+                undecodable.forEach(record -> transactionTemplate.executeWithoutResult(status -> park(record)));
+            }
+            total += page.events().size();
+            cursor = page.lastPosition();
+        }
+    }
+
+    private void applyAlone(EventCoalescer.Folded folded) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(folded));
+        } catch (RuntimeException e) {
+            System.err.println("❌ [PROJECTION] 回放事件失败: position=" + folded.event().getPosition() + " - " + e.getMessage());
+        }
+    }
+
+    private void apply(EventCoalescer.Folded folded) {
+        DomainEvent event = folded.event();
+        projectionTracker.registerFolded(event, folded.absorbed());
+        try {
+            boolean handled = eventProcessorRegistry.replay(event.getEventType(), event);
+            if (!handled) {
+                // 没有投影关心的事件类型，直接推进进度
+                projectionTracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+            }
+        } finally {
+            projectionTracker.clearFolded(event);
+        }
+    }
+
+    /**
+     * 多次回放仍无法应用而被跳过的事件
+     *
+     * @param replays 搁置前在该位置的回放次数，无法解码的记录为 0
+     * @param reason  搁置原因
+     */
+    public record ParkedEvent(long position,
+                              String eventId,
+                              String eventType,
+                              String aggregateId,
+                              int replays,
+                              String reason,
+                              Instant parkedAt) {
+    }
+}
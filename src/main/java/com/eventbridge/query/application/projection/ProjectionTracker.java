@@ -0,0 +1,270 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 投影进度跟踪器（按投影名称区分）
+ *
+ * 事件处理器是并发执行的，事件可能乱序落库，因此每个投影维护的是"连续已应用位置"：
+ * 位置 N 被视为已应用，当且仅当 1..N 的所有事件都已提交到读模型。
+ * 超前完成的位置暂存在 pending 中，前面的空缺补齐后水位线再前移。
+ * 水位线按批次持久化为检查点（见 ProjectionCheckpointStore），崩溃后从检查点继续。
+ */
+@Component
+public class ProjectionTracker {
+
+    /**
+     * UserView 读模型投影
+     */
+    public static final String USER_VIEWS = "user-views";
+
+    private final EventStore eventStore;
+    private final ProjectionCheckpointStore checkpointStore;
+
+    private final Map<String, Progress> projections = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> foldedPositions = new ConcurrentHashMap<>();
+
+    @Value("${eventbridge.query.store:jpa}")
+    private String store;
+
+    public ProjectionTracker(EventStore eventStore, ProjectionCheckpointStore checkpointStore) {
+        this.eventStore = eventStore;
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * 启动时从检查点恢复进度
+     * 内存读模型重启后为空，此时数据库中的检查点不代表读模型内容，只能依赖快照恢复
+     */
+    @PostConstruct
+    public void loadCheckpoints() {
+        long position = checkpointStore.ensureExists(USER_VIEWS);
+        if ("memory".equals(store)) {
+            System.out.println("ℹ️ [PROJECTION] 内存读模型忽略数据库检查点: " + USER_VIEWS + "=" + position);
+            return;
+        }
+        if (position > 0) {
+            restore(USER_VIEWS, position);
+        } else {
+            progress(USER_VIEWS);
+        }
+    }
+
+    /**
+     * 标记事件已应用到指定投影
+     * 存在活动事务时，进度在事务提交后才推进，检查点则随当前事务一起写入，保证两者都不会超前于读模型
+     */
+    public void markApplied(String projectionName, DomainEvent event) {
+        Long position = event.getPosition();
+        if (position == null) {
+            return;
+        }
+        List<Long> positions = new ArrayList<>();
+        positions.add(position);
+        positions.addAll(foldedPositions.getOrDefault(event.getEventId(), List.of()));
+        advance(projectionName, positions);
+    }
+
+    /**
+     * 跳过无法解码的事件日志记录，进度推进规则与 markApplied 相同
+     */
+    public void markSkipped(String projectionName, long position) {
+        advance(projectionName, List.of(position));
+    }
+
+    private void advance(String projectionName, List<Long> positions) {
+        Progress progress = progress(projectionName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    positions.forEach(progress::applied);
+                }
+            });
+            checkpointStore.maybeCheckpoint(projectionName, progress.watermark.get());
+        } else {
+            positions.forEach(progress::applied);
+        }
+    }
+
+    /**
+     * 登记被合并事件吸收的位置：保留事件标记为已应用时，这些位置随之一起推进
+     */
+    public void registerFolded(DomainEvent event, List<DomainEvent> absorbed) {
+        if (absorbed.isEmpty()) {
+            return;
+        }
+        foldedPositions.put(event.getEventId(), absorbed.stream()
+                .map(DomainEvent::getPosition)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public void clearFolded(DomainEvent event) {
+        foldedPositions.remove(event.getEventId());
+    }
+
+    /**
+     * 连续已应用的最大事件位置
+     */
+    public long getLastAppliedPosition(String projectionName) {
+        Progress progress = projections.get(projectionName);
+        return progress == null ? 0 : progress.watermark.get();
+    }
+
+    /**
+     * 已见到的最大事件位置（可能存在尚未补齐的空缺）
+     */
+    public long getHighestSeenPosition(String projectionName) {
+        Progress progress = projections.get(projectionName);
+        if (progress == null) {
+            return 0;
+        }
+        Long last = progress.pending.isEmpty() ? null : progress.pending.last();
+        return last != null ? Math.max(last, progress.watermark.get()) : progress.watermark.get();
+    }
+
+    /**
+     * 投影进度到达指定位置时完成的 future，事件驱动，无需轮询
+     * 调用方应在其他线程上继续后续操作（future 在投影事务提交回调中完成）
+     */
+    public CompletableFuture<Void> awaitPosition(String projectionName, long position) {
+        Progress progress = progress(projectionName);
+        if (progress.watermark.get() >= position) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> reached = progress.waiters.computeIfAbsent(position, p -> new CompletableFuture<>());
+        // 登记之后再检查一次，避免与水位线推进竞争而错过唤醒
+        progress.release();
+        // 每个调用方拿到独立的副本，调用方设置超时不会影响其他等待者
+        return reached.copy();
+    }
+
+    public boolean isApplied(String projectionName, long position) {
+        Progress progress = projections.get(projectionName);
+        return progress != null && (position <= progress.watermark.get() || progress.pending.contains(position));
+    }
+
+    public Set<String> getProjectionNames() {
+        return projections.keySet();
+    }
+
+    /**
+     * 将进度设置到指定位置（快照恢复、回退、快进），丢弃所有超前完成的位置
+     */
+    public void restore(String projectionName, long position) {
+        Progress progress = progress(projectionName);
+        synchronized (progress) {
+            progress.watermark.set(position);
+            progress.pending.clear();
+        }
+        progress.release();
+        System.out.println("📍 [PROJECTION] 投影进度已设置: " + projectionName + " -> " + position);
+    }
+
+    /**
+     * 把最后一批尚未写入的进度落盘，避免流量停止后检查点一直停在上一个批次
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.checkpoint.interval-ms:1000}")
+    public void flushCheckpoints() {
+        projections.forEach((name, progress) -> {
+            long watermark = progress.watermark.get();
+            if (watermark > checkpointStore.getPersistedPosition(name)) {
+                checkpointStore.advance(name, watermark);
+            }
+        });
+    }
+
+    /**
+     * 处理事件日志中的空洞
+     * 命令端事务回滚会消耗自增位置但不产生事件，若空缺区间在事件日志中确实不存在，则直接跳过
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.projection.gap-check-interval-ms:5000}")
+    public void resolveGaps() {
+        projections.forEach((name, progress) -> {
+            Long firstPending = progress.pending.isEmpty() ? null : progress.pending.first();
+            if (firstPending == null) {
+                return;
+            }
+            long current = progress.watermark.get();
+            if (firstPending <= current + 1) {
+                return;
+            }
+            if (!eventStore.existsBetween(current + 1, firstPending - 1)) {
+                synchronized (progress) {
+                    if (progress.watermark.compareAndSet(current, firstPending - 1)) {
+                        progress.drain();
+                        System.out.println("🕳️ [PROJECTION] " + name + " 跳过事件日志空洞: "
+                                + (current + 1) + " - " + (firstPending - 1));
+                    }
+                }
+            }
+        });
+    }
+
+    private Progress progress(String projectionName) {
+        return projections.computeIfAbsent(projectionName, name -> {
+            if (!USER_VIEWS.equals(name)) {
+                checkpointStore.ensureExists(name);
+            }
+            return new Progress();
+        });
+    }
+
+    /**
+     * 单个投影的进度
+     */
+    private static final class Progress {
+        private final AtomicLong watermark = new AtomicLong(0);
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private final ConcurrentSkipListMap<Long, CompletableFuture<Void>> waiters = new ConcurrentSkipListMap<>();
+
+        private synchronized void applied(long position) {
+            if (position <= watermark.get()) {
+                return;
+            }
+            pending.add(position);
+            drain();
+        }
+
+        private synchronized void drain() {
+            long current = watermark.get();
+            while (pending.remove(current + 1)) {
+                current++;
+            }
+            watermark.set(current);
+            release();
+        }
+
+        /**
+         * 唤醒所有等待位置不超过水位线的调用方
+         */
+        private void release() {
+            long current = watermark.get();
+            Map.Entry<Long, CompletableFuture<Void>> entry;
+            while ((entry = waiters.firstEntry()) != null && entry.getKey() <= current) {
+                if (waiters.remove(entry.getKey(), entry.getValue())) {
+                    entry.getValue().complete(null);
+                }
+            }
+        }
+    }
+}
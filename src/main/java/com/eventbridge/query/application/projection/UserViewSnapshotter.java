@@ -0,0 +1,130 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.config.QueryDataSourceConfig;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import com.eventbridge.query.infrastructure.snapshot.UserViewSnapshotFile;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 读模型快照
+ *
+ * 定期把查询端投影状态和连续已应用的事件位置写入内存映射文件；
+ * 启动时先映射快照恢复读模型并立即对外提供查询，再由 ProjectionReplayer 只回放快照之后的尾部事件。
+ * 快照位置超过事件日志最新位置时（例如命令端使用内存数据库，重启后事件日志从 1 重新开始），快照属于另一段事件历史，直接丢弃。
+ */
+@Component
+public class UserViewSnapshotter {
+
+    private final UserViewRepository userViewRepository;
+    private final ProjectionTracker projectionTracker;
+    private final EventStore eventStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Value("${eventbridge.query.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${eventbridge.query.snapshot.path:./data/user-views.snapshot}")
+    private String path;
+
+    private volatile long lastSnapshotPosition = -1;
+
+    public UserViewSnapshotter(UserViewRepository userViewRepository,
+                               ProjectionTracker projectionTracker,
+                               EventStore eventStore,
+                               @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager) {
+        this.userViewRepository = userViewRepository;
+        this.projectionTracker = projectionTracker;
+        this.eventStore = eventStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 启动时加载快照
+     */
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        Path snapshotPath = Paths.get(path);
+        if (!Files.exists(snapshotPath)) {
+            System.out.println("ℹ️ [SNAPSHOT] 未找到读模型快照，将从事件日志完整回放: " + snapshotPath);
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            UserViewSnapshotFile.Snapshot snapshot = UserViewSnapshotFile.read(snapshotPath);
+            long head = eventStore.getHeadPosition();
+            if (snapshot.position() > head) {
+                System.out.println("⚠️ [SNAPSHOT] 快照位置 " + snapshot.position() + " 超过事件日志最新位置 " + head
+                        + "，事件日志已重置，丢弃快照并从事件日志完整回放");
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> snapshot.views().forEach(userViewRepository::save));
+            projectionTracker.restore(ProjectionTracker.USER_VIEWS, snapshot.position());
+            lastSnapshotPosition = snapshot.position();
+            System.out.println("📸 [SNAPSHOT] 读模型快照已加载: " + snapshot.views().size() + " 条记录, position="
+                    + snapshot.position() + ", 耗时 " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            // 快照损坏时退化为完整回放，不影响启动
+            System.err.println("❌ [SNAPSHOT] 加载读模型快照失败，将从事件日志完整回放: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 定期写入快照，进度没有变化时跳过
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.snapshot.interval-ms:60000}",
+            initialDelayString = "${eventbridge.query.snapshot.interval-ms:60000}")
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        // 先读进度再读数据：快照内容只会比记录的位置更新，回放尾部事件时是幂等的
+        long position = projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS);
+        if (position == lastSnapshotPosition) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            List<UserView> views = readOnlyTransactionTemplate.execute(status -> userViewRepository.findAll());
+            UserViewSnapshotFile.write(Paths.get(path), position, views);
+            lastSnapshotPosition = position;
+            System.out.println("📸 [SNAPSHOT] 读模型快照已写入: " + views.size() + " 条记录, position="
+                    + position + ", 耗时 " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            System.err.println("❌ [SNAPSHOT] 写入读模型快照失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 停机前写入最后一次快照，缩短下次启动的回放区间
+     */
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    public long getLastSnapshotPosition() {
+        return lastSnapshotPosition;
+    }
+}
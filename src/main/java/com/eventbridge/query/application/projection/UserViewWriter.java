@@ -0,0 +1,52 @@
+package com.eventbridge.query.application.projection;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.common.jfr.ProjectionWriteJfrEvent;
+import com.eventbridge.common.observation.EventTracing;
+import com.eventbridge.query.application.search.UserSearchIndex;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户视图投影写入
+ *
+ * 本地事件处理器和注册表处理器共用：写入读模型，同时记录追踪 span 和 JFR 事件，
+ * 并维护已投影用户 ID 过滤器和搜索索引。
+ */
+@Component
+public class UserViewWriter {
+
+    private final UserViewRepository userViewRepository;
+    private final EventTracing eventTracing;
+    private final ProjectedUserIds projectedUserIds;
+    private final UserSearchIndex userSearchIndex;
+
+    public UserViewWriter(UserViewRepository userViewRepository,
+                          EventTracing eventTracing,
+                          ProjectedUserIds projectedUserIds,
+                          UserSearchIndex userSearchIndex) {
+        this.userViewRepository = userViewRepository;
+        this.eventTracing = eventTracing;
+        this.projectedUserIds = projectedUserIds;
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    /**
+     * 写入一条用户视图，handler 标识写入来源（local / registry），记录在 JFR 事件中
+     */
+    public void save(String handler, DomainEvent event, UserView userView) {
+        ProjectionWriteJfrEvent write = new ProjectionWriteJfrEvent();
+        write.begin();
+        eventTracing.observe(EventTracing.PROJECTION_WRITE, event.getEventType(), () -> userViewRepository.save(userView));
+        projectedUserIds.add(userView.getUserId());
+        userSearchIndex.index(userView);
+        write.end();
+        if (write.shouldCommit()) {
+            write.handler = handler;
+            write.eventType = event.getEventType();
+            write.userId = userView.getUserId();
+            write.commit();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.eventbridge.query.application.search;
+
+import com.eventbridge.command.domain.model.UserStatus;
+
+/**
+ * 全文检索命中的用户及相关度得分
+ */
+public record FullTextSearchHit(String userId, String username, String email, UserStatus status, float score) {
+}
@@ -0,0 +1,9 @@
+package com.eventbridge.query.application.search;
+
+import java.util.List;
+
+/**
+ * 一页全文检索结果，totalHits 为命中总数（超过统计上限时为下限值）
+ */
+public record FullTextSearchPage(List<FullTextSearchHit> items, int page, int size, long totalHits, boolean hasMore) {
+}
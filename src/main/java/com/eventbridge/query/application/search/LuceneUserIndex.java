@@ -0,0 +1,464 @@
+package com.eventbridge.query.application.search;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+import com.eventbridge.command.domain.model.User;
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.command.infrastructure.persistence.UserRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 用户全文索引（嵌入式 Lucene，MMapDirectory 落盘）
+ *
+ * - 用户名、邮箱按字母数字切分并转小写，支持分词、前缀和模糊（编辑距离）匹配
+ * - 近实时：写入只进 IndexWriter，定时刷新 SearcherManager 后对查询可见；刷新前写入的文档
+ *   暂存在 pending 中，保证事件处理能读到自己刚写入的版本
+ * - 批量提交：按时间间隔或累计写入条数提交，提交数据中记录已应用的最大事件位置，重启后从该位置追赶事件日志
+ * - 每个文档记录最后应用的事件位置，乱序或重复到达的旧事件不会覆盖新状态
+ * - 可随时从写模型（users 表）重建
+ */
+@Component
+@ConditionalOnProperty(prefix = "eventbridge.query.lucene", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LuceneUserIndex {
+
+    private static final String USER_ID = "userId";
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+    private static final String STATUS = "status";
+    private static final String VERSION = "version";
+    private static final String COMMITTED_POSITION = "position";
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final EventStore eventStore;
+    private final Analyzer analyzer = new UserFieldAnalyzer();
+
+    @Value("${eventbridge.query.lucene.path:./data/lucene/users}")
+    private String path;
+
+    @Value("${eventbridge.query.lucene.commit-batch-size:1000}")
+    private int commitBatchSize;
+
+    @Value("${eventbridge.query.lucene.catch-up-overlap:1000}")
+    private long catchUpOverlap;
+
+    @Value("${eventbridge.query.lucene.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${eventbridge.query.lucene.max-result-window:1000}")
+    private int maxResultWindow;
+
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    private final Object writeLock = new Object();
+    /**
+     * 已写入但尚未刷新到查询视图的文档
+     */
+    private final Map<String, UserDocument> pending = new ConcurrentHashMap<>();
+    private int uncommitted;
+    private long appliedPosition;
+    private volatile boolean closed;
+
+    public LuceneUserIndex(UserRepository userRepository, EventStore eventStore) {
+        this.userRepository = userRepository;
+        this.eventStore = eventStore;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path indexPath = Path.of(path);
+        Files.createDirectories(indexPath);
+        directory = new MMapDirectory(indexPath);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        appliedPosition = committedPosition();
+        System.out.println("🔎 [QUERY-LUCENE] 全文索引已打开: " + indexPath.toAbsolutePath()
+                + "，文档数 " + writer.getDocStats().numDocs + "，已提交位置 " + appliedPosition);
+    }
+
+    /**
+     * 启动时补齐索引：从未提交过、或提交位置超过事件日志末尾（写模型已重置）时从写模型重建，
+     * 否则从已提交位置（向前重叠一段）追赶事件日志
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() throws IOException {
+        long committed = committedPosition();
+        if (committed < 0 || committed > eventStore.getHeadPosition()) {
+            rebuild();
+            return;
+        }
+        long cursor = Math.max(0, committed - catchUpOverlap);
+        int replayed = 0;
+        EventStore.EventPage page;
+        while (!(page = eventStore.readAfter(cursor, REBUILD_BATCH_SIZE)).isEmpty()) {
+            // 无法解码的记录已由事件日志记录，索引直接越过
+            page.events().forEach(this::apply);
+            replayed += page.events().size();
+            cursor = page.lastPosition();
+        }
+        commit();
+        refresh();
+        System.out.println("🔎 [QUERY-LUCENE] 全文索引已追赶事件日志: 从位置 " + committed + " 回放 " + replayed + " 个事件");
+    }
+
+    /**
+     * 应用一个用户事件，其他事件类型忽略
+     */
+    public void apply(DomainEvent event) {
+        if (event instanceof UserCreatedEvent created) {
+            created(created.getUserId(), created.getUsername(), created.getEmail(), created.getPosition());
+        } else if (event instanceof UserEmailUpdatedEvent updated) {
+            emailUpdated(updated.getUserId(), updated.getNewEmail(), updated.getPosition());
+        } else if (event instanceof UserDeactivatedEvent deactivated) {
+            deactivated(deactivated.getUserId(), deactivated.getPosition());
+        }
+    }
+
+    private void created(String userId, String username, String email, Long position) {
+        update(userId, position, current -> current == null
+                ? new UserDocument(userId, username, email, UserStatus.ACTIVE, version(position))
+                // 创建事件晚于后续事件到达时只补齐用户名，邮箱和状态以较新的为准
+                : current.isNewerThan(position)
+                ? current.withUsername(username)
+                : new UserDocument(userId, username, email, current.status(), version(position)));
+    }
+
+    private void emailUpdated(String userId, String email, Long position) {
+        update(userId, position, current -> {
+            if (current != null && current.isNewerThan(position)) {
+                return null;
+            }
+            return current == null
+                    ? new UserDocument(userId, null, email, UserStatus.ACTIVE, version(position))
+                    : current.withEmail(email, version(position));
+        });
+    }
+
+    private void deactivated(String userId, Long position) {
+        update(userId, position, current -> current == null
+                ? new UserDocument(userId, null, null, UserStatus.INACTIVE, version(position))
+                : current.withStatus(UserStatus.INACTIVE, Math.max(current.version(), version(position))));
+    }
+
+    /**
+     * 全文检索：各个词都需命中用户名或邮箱（精确词 > 前缀 > 模糊），按相关度排序
+     */
+    public FullTextSearchPage search(String queryText, UserStatus status, int page, int size) throws IOException {
+        if (queryText == null || queryText.isBlank()) {
+            throw new IllegalArgumentException("查询串不能为空");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page 不能小于 0: " + page);
+        }
+        if (size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("size 必须在 1 到 " + maxPageSize + " 之间: " + size);
+        }
+        int window = (page + 1) * size;
+        if (window > maxResultWindow) {
+            throw new IllegalArgumentException("分页超出最大结果窗口 " + maxResultWindow + "，请缩小 page 或 size");
+        }
+        List<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            return new FullTextSearchPage(List.of(), page, size, 0, false);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            query.add(termQuery(terms.get(i), i == terms.size() - 1), BooleanClause.Occur.MUST);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query.build(), window);
+            List<FullTextSearchHit> hits = new ArrayList<>(size);
+            ScoreDoc[] scoreDocs = top.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                Document doc = searcher.storedFields().document(scoreDocs[i].doc);
+                String docStatus = doc.get(STATUS);
+                hits.add(new FullTextSearchHit(doc.get(USER_ID), doc.get(USERNAME), doc.get(EMAIL),
+                        docStatus == null ? null : UserStatus.valueOf(docStatus), scoreDocs[i].score));
+            }
+            return new FullTextSearchPage(hits, page, size, top.totalHits.value, top.totalHits.value > window);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * 从写模型重建索引。重建期间暂停事件写入；已在重建前提交的事件位置视为已包含在写模型快照中
+     *
+     * @return 重建的文档数
+     */
+    public int rebuild() throws IOException {
+        synchronized (writeLock) {
+            long start = System.currentTimeMillis();
+            long head = eventStore.getHeadPosition();
+            writer.deleteAll();
+            pending.clear();
+            int count = 0;
+            Page<User> batch;
+            int pageNumber = 0;
+            do {
+                batch = userRepository.findAll(PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE, Sort.by("id")));
+                for (User user : batch) {
+                    UserDocument doc = new UserDocument(user.getId(), user.getUsername(), user.getEmail(),
+                            user.getStatus(), head);
+                    writer.addDocument(doc.toDocument());
+                    count++;
+                }
+            } while (batch.hasNext());
+            appliedPosition = head;
+            commitLocked();
+            searcherManager.maybeRefreshBlocking();
+            System.out.println("🔎 [QUERY-LUCENE] 全文索引已从写模型重建: " + count + " 个用户，位置 " + head
+                    + "，耗时 " + (System.currentTimeMillis() - start) + "ms");
+            return count;
+        }
+    }
+
+    /**
+     * 近实时刷新：让已写入的文档对查询可见
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.lucene.refresh-interval-ms:200}")
+    public void refresh() throws IOException {
+        synchronized (writeLock) {
+            if (!closed && !pending.isEmpty()) {
+                searcherManager.maybeRefreshBlocking();
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * 批量提交：把新增段和已应用位置持久化
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.query.lucene.commit-interval-ms:5000}")
+    public void commit() throws IOException {
+        synchronized (writeLock) {
+            if (!closed && writer.hasUncommittedChanges()) {
+                commitLocked();
+            }
+        }
+    }
+
+    public int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            commit();
+            closed = true;
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    private void update(String userId, Long position, UnaryOperator<UserDocument> change) {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            try {
+                UserDocument next = change.apply(lookup(userId));
+                if (next == null) {
+                    return;
+                }
+                writer.updateDocument(new Term(USER_ID, userId), next.toDocument());
+                pending.put(userId, next);
+                if (position != null) {
+                    appliedPosition = Math.max(appliedPosition, position);
+                }
+                if (++uncommitted >= commitBatchSize) {
+                    commitLocked();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private UserDocument lookup(String userId) throws IOException {
+        UserDocument fresh = pending.get(userId);
+        if (fresh != null) {
+            return fresh;
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(new TermQuery(new Term(USER_ID, userId)), 1);
+            return top.scoreDocs.length == 0
+                    ? null
+                    : UserDocument.of(searcher.storedFields().document(top.scoreDocs[0].doc));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void commitLocked() throws IOException {
+        writer.setLiveCommitData(Map.of(COMMITTED_POSITION, String.valueOf(appliedPosition)).entrySet());
+        writer.commit();
+        uncommitted = 0;
+    }
+
+    /**
+     * 最近一次提交记录的事件位置，从未提交过返回 -1
+     */
+    private long committedPosition() throws IOException {
+        if (!DirectoryReader.indexExists(directory)) {
+            return -1;
+        }
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            String position = reader.getIndexCommit().getUserData().get(COMMITTED_POSITION);
+            return position == null ? -1 : Long.parseLong(position);
+        }
+    }
+
+    private Query termQuery(String term, boolean last) {
+        BooleanQuery.Builder fields = new BooleanQuery.Builder();
+        int maxEdits = term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+        for (String field : List.of(USERNAME, EMAIL)) {
+            fields.add(new BoostQuery(new TermQuery(new Term(field, term)), 3f), BooleanClause.Occur.SHOULD);
+            if (last) {
+                // 最后一个词可能尚未输完，按前缀匹配
+                fields.add(new BoostQuery(new PrefixQuery(new Term(field, term)), 1.5f), BooleanClause.Occur.SHOULD);
+            }
+            if (maxEdits > 0) {
+                fields.add(new FuzzyQuery(new Term(field, term), maxEdits), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return fields.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(USERNAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static long version(Long position) {
+        return position == null ? 0 : position;
+    }
+
+    /**
+     * 用户名和邮箱按字母数字切分并转小写："Alice.Smith@Example.com" -> alice, smith, example, com
+     */
+    private static final class UserFieldAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+            return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+        }
+    }
+
+    /**
+     * 索引中的用户文档，version 为最后应用的事件位置（事件未带位置时为 0，总是应用）
+     */
+    private record UserDocument(String userId, String username, String email, UserStatus status, long version) {
+
+        static UserDocument of(Document doc) {
+            String status = doc.get(STATUS);
+            return new UserDocument(doc.get(USER_ID), doc.get(USERNAME), doc.get(EMAIL),
+                    status == null ? null : UserStatus.valueOf(status),
+                    doc.getField(VERSION).numericValue().longValue());
+        }
+
+        boolean isNewerThan(Long position) {
+            return position != null && version > position;
+        }
+
+        UserDocument withUsername(String username) {
+            return new UserDocument(userId, username, email, status, version);
+        }
+
+        UserDocument withEmail(String email, long version) {
+            return new UserDocument(userId, username, email, status, version);
+        }
+
+        UserDocument withStatus(UserStatus status, long version) {
+            return new UserDocument(userId, username, email, status, version);
+        }
+
+        Document toDocument() {
+            Document doc = new Document();
+            doc.add(new StringField(USER_ID, userId, Field.Store.YES));
+            if (username != null) {
+                doc.add(new TextField(USERNAME, username, Field.Store.YES));
+            }
+            if (email != null) {
+                doc.add(new TextField(EMAIL, email, Field.Store.YES));
+            }
+            if (status != null) {
+                doc.add(new StringField(STATUS, status.name(), Field.Store.YES));
+            }
+            doc.add(new StoredField(VERSION, version));
+            return doc;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.eventbridge.query.application.search;
+
+import com.eventbridge.command.domain.model.UserStatus;
+
+/**
+ * 搜索命中的用户（用户名和邮箱为小写形式）
+ */
+public record UserSearchHit(String userId, String username, String email, UserStatus status) {
+}
@@ -0,0 +1,286 @@
+package com.eventbridge.query.application.search;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 用户名 / 邮箱搜索索引（纯内存）
+ *
+ * 数据结构（均按小写存储）：
+ * - 前缀索引：有序表 username/email -> userId 集合，前缀查询即一次范围扫描，结果按名称排序
+ * - 子串索引：三元组（trigram）-> 按 userId 排序的倒排表。查询取各三元组倒排表的交集（从最短的开始），
+ *   再逐个校验是否真正包含查询串；不足 3 个字符的查询合并所有以该串开头的三元组
+ *
+ * 启动时从读模型加载，之后由投影写入维护（见 UserViewWriter），写入在读模型事务提交后生效。
+ * 分页只收集到当前页末尾多一条为止，用 hasMore 表示是否还有下一页，不统计总数。
+ * 读操作无锁，写操作串行化以保证各结构之间一致。
+ */
+@Component
+public class UserSearchIndex {
+
+    public enum Mode {
+        PREFIX, SUBSTRING
+    }
+
+    private static final int GRAM = 3;
+    /**
+     * 文本末尾补齐的占位符，保证末尾不足 3 个字符的片段也出现在某个三元组的开头
+     */
+    private static final String PADDING = "\u0001\u0001";
+
+    private final UserViewRepository userViewRepository;
+
+    @Value("${eventbridge.query.search.max-page-size:100}")
+    private int maxPageSize;
+
+    private final Map<String, Doc> docs = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, NavigableSet<String>> names = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, NavigableSet<String>> grams = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+
+    public UserSearchIndex(UserViewRepository userViewRepository) {
+        this.userViewRepository = userViewRepository;
+    }
+
+    /**
+     * 从读模型加载；加载期间投影写入的更新视图不会被加载到的旧版本覆盖（按 lastUpdated 比较）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        userViewRepository.findAll().forEach(this::apply);
+        System.out.println("🔎 [QUERY-SEARCH] 用户搜索索引已加载: " + docs.size() + " 个用户，耗时 "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * 登记用户视图的最新状态；存在活动事务时在提交后才生效
+     */
+    public void index(UserView view) {
+        Doc doc = Doc.of(view);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(view.getUserId(), doc);
+                }
+            });
+        } else {
+            apply(view.getUserId(), doc);
+        }
+    }
+
+    /**
+     * 校验查询参数，非法时抛出 IllegalArgumentException
+     */
+    public Mode validate(String query, String mode, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("查询串不能为空");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page 不能小于 0: " + page);
+        }
+        if (size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("size 必须在 1 到 " + maxPageSize + " 之间: " + size);
+        }
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的搜索模式: " + mode + "（可选 prefix、substring）");
+        }
+    }
+
+    public UserSearchPage search(String query, Mode mode, int page, int size) {
+        String normalized = normalize(query);
+        int limit = page * size + size + 1;
+        Set<String> matched = mode == Mode.PREFIX ? prefix(normalized, limit) : substring(normalized, limit);
+
+        List<UserSearchHit> hits = new ArrayList<>(size);
+        int skipped = 0;
+        for (String userId : matched) {
+            if (skipped++ < page * size) {
+                continue;
+            }
+            if (hits.size() == size) {
+                break;
+            }
+            Doc doc = docs.get(userId);
+            if (doc != null) {
+                hits.add(new UserSearchHit(userId, doc.username, doc.email, doc.status));
+            }
+        }
+        return new UserSearchPage(hits, page, size, matched.size() > page * size + size);
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * 前缀查询：按名称顺序扫描，同一用户的用户名和邮箱都匹配时只计一次
+     */
+    private Set<String> prefix(String query, int limit) {
+        Set<String> result = new LinkedHashSet<>();
+        for (NavigableSet<String> userIds : range(names, query).values()) {
+            for (String userId : userIds) {
+                result.add(userId);
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 子串查询：结果按 userId 排序，保证分页稳定
+     */
+    private Set<String> substring(String query, int limit) {
+        if (query.length() < GRAM) {
+            // 短查询：合并所有以该串开头的三元组（末尾补齐保证覆盖到文本结尾的片段）
+            NavigableSet<String> result = new TreeSet<>();
+            range(grams, query).values().forEach(result::addAll);
+            return result;
+        }
+
+        List<NavigableSet<String>> postings = new ArrayList<>();
+        for (String gram : gramsOf(query, false)) {
+            NavigableSet<String> userIds = grams.get(gram);
+            if (userIds == null) {
+                return Set.of();
+            }
+            postings.add(userIds);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> result = new LinkedHashSet<>();
+        NavigableSet<String> smallest = postings.get(0);
+        for (String userId : smallest) {
+            if (containsAll(postings, userId) && matches(docs.get(userId), query)) {
+                result.add(userId);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsAll(List<NavigableSet<String>> postings, String userId) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(userId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Doc doc, String query) {
+        return doc != null && (doc.username.contains(query) || doc.email.contains(query));
+    }
+
+    private void apply(UserView view) {
+        apply(view.getUserId(), Doc.of(view));
+    }
+
+    private void apply(String userId, Doc doc) {
+        synchronized (writeLock) {
+            Doc old = docs.get(userId);
+            if (old != null && old.isNewerThan(doc)) {
+                return;
+            }
+            docs.put(userId, doc);
+            if (old != null) {
+                remove(userId, old.username, doc);
+                remove(userId, old.email, doc);
+            }
+            add(userId, doc.username);
+            add(userId, doc.email);
+        }
+    }
+
+    private void add(String userId, String text) {
+        names.computeIfAbsent(text, key -> new ConcurrentSkipListSet<>()).add(userId);
+        for (String gram : gramsOf(text, true)) {
+            grams.computeIfAbsent(gram, key -> new ConcurrentSkipListSet<>()).add(userId);
+        }
+    }
+
+    /**
+     * 移除旧文本的索引项，新文档中仍然存在的文本保留
+     */
+    private void remove(String userId, String text, Doc current) {
+        if (text.equals(current.username) || text.equals(current.email)) {
+            return;
+        }
+        removeFrom(names, text, userId);
+        Set<String> kept = new TreeSet<>(gramsOf(current.username, true));
+        kept.addAll(gramsOf(current.email, true));
+        for (String gram : gramsOf(text, true)) {
+            if (!kept.contains(gram)) {
+                removeFrom(grams, gram, userId);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<String>> index, String key, String userId) {
+        index.computeIfPresent(key, (k, userIds) -> {
+            userIds.remove(userId);
+            return userIds.isEmpty() ? null : userIds;
+        });
+    }
+
+    private static Set<String> gramsOf(String text, boolean padded) {
+        String source = padded ? text + PADDING : text;
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= source.length(); i++) {
+            result.add(source.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static NavigableMap<String, NavigableSet<String>> range(ConcurrentSkipListMap<String, NavigableSet<String>> index,
+                                                                    String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引中保存的用户信息，搜索结果直接由它生成，不再查询读模型
+     */
+    private record Doc(String username, String email, UserStatus status, LocalDateTime lastUpdated) {
+
+        static Doc of(UserView view) {
+            return new Doc(normalize(view.getUsername()), normalize(view.getEmail()), view.getStatus(), view.getLastUpdated());
+        }
+
+        boolean isNewerThan(Doc other) {
+            return lastUpdated != null && other.lastUpdated != null && lastUpdated.isAfter(other.lastUpdated);
+        }
+    }
+}
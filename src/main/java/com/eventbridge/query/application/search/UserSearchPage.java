@@ -0,0 +1,9 @@
+package com.eventbridge.query.application.search;
+
+import java.util.List;
+
+/**
+ * 一页搜索结果，hasMore 表示是否还有下一页
+ */
+public record UserSearchPage(List<UserSearchHit> items, int page, int size, boolean hasMore) {
+}
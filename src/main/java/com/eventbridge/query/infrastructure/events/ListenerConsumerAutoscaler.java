@@ -0,0 +1,191 @@
+package com.eventbridge.query.infrastructure.events;
+
+import com.eventbridge.config.RabbitMQConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user-events-queue 监听容器的消费者自动伸缩
+ *
+ * 每个周期根据三个信号调整消费者数量和预取值：
+ * 1. 队列积压：积压超过 当前消费者数 × messages-per-consumer 时扩容（每次最多翻倍），积压明显回落后逐个缩容；
+ * 2. 处理耗时：单条消息平均处理耗时（EWMA）超过 max-latency-ms 时认为下游已过载，缩容一个消费者；
+ * 3. 查询端连接池：活跃连接占比超过 max-pool-utilization 或有线程在等待连接时同样缩容，
+ *    此时再增加消费者只会加剧连接争用。
+ * 追赶积压时使用 max-prefetch 减少往返，稳态恢复为 prefetch；预取值只对之后新建的消费者生效，扩缩容时自然替换。
+ * 分区模式下 user-events-queue 没有绑定，事件由各分区队列的容器消费（见 PartitionAssignmentManager），自动伸缩不生效。
+ */
+@Component
+public class ListenerConsumerAutoscaler {
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final HikariDataSource queryDataSource;
+
+    @Value("${eventbridge.rabbitmq.listener.autoscale.enabled:true}")
+    private boolean enabled;
+
+    @Value("${eventbridge.rabbitmq.partitions.enabled:false}")
+    private boolean partitioned;
+
+    @Value("${eventbridge.rabbitmq.listener.min-consumers:1}")
+    private int minConsumers;
+
+    @Value("${eventbridge.rabbitmq.listener.max-consumers:8}")
+    private int maxConsumers;
+
+    @Value("${eventbridge.rabbitmq.listener.prefetch:50}")
+    private int prefetch;
+
+    @Value("${eventbridge.rabbitmq.listener.max-prefetch:250}")
+    private int maxPrefetch;
+
+    @Value("${eventbridge.rabbitmq.listener.autoscale.messages-per-consumer:500}")
+    private long messagesPerConsumer;
+
+    @Value("${eventbridge.rabbitmq.listener.autoscale.max-latency-ms:200}")
+    private double maxLatencyMs;
+
+    @Value("${eventbridge.rabbitmq.listener.autoscale.max-pool-utilization:0.8}")
+    private double maxPoolUtilization;
+
+    private double latencyEwmaMs;
+    private long samplesSinceLastCheck;
+
+    private volatile int consumers;
+    private volatile int currentPrefetch;
+    private volatile long lastQueueDepth = -1;
+    private volatile boolean brokerUnavailable;
+
+    public ListenerConsumerAutoscaler(RabbitListenerEndpointRegistry listenerRegistry,
+                                      AmqpAdmin amqpAdmin,
+                                      @Qualifier("queryDataSource") HikariDataSource queryDataSource) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.queryDataSource = queryDataSource;
+    }
+
+    /**
+     * 记录单条消息的处理耗时
+     */
+    public synchronized void recordProcessingTime(long nanos) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        latencyEwmaMs = samplesSinceLastCheck == 0
+                ? millis
+                : EWMA_ALPHA * millis + (1 - EWMA_ALPHA) * latencyEwmaMs;
+        samplesSinceLastCheck++;
+    }
+
+    @Scheduled(fixedDelayString = "${eventbridge.rabbitmq.listener.autoscale.interval-ms:5000}",
+            initialDelayString = "${eventbridge.rabbitmq.listener.autoscale.interval-ms:5000}")
+    public void rebalance() {
+        if (!enabled || partitioned) {
+            return;
+        }
+        MessageListenerContainer listenerContainer = listenerRegistry.getListenerContainer(RabbitMQConfig.USER_EVENTS_LISTENER_ID);
+        if (!(listenerContainer instanceof SimpleMessageListenerContainer container) || !container.isRunning()) {
+            return;
+        }
+
+        long depth;
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.USER_EVENTS_QUEUE);
+            if (info == null) {
+                return;
+            }
+            depth = info.getMessageCount();
+            if (brokerUnavailable) {
+                System.out.println("✅ [QUERY-RABBITMQ] RabbitMQ 已恢复，继续消费者自动伸缩");
+                brokerUnavailable = false;
+            }
+        } catch (AmqpException e) {
+            if (!brokerUnavailable) {
+                System.err.println("⚠️ [QUERY-RABBITMQ] 无法获取队列深度，暂停消费者自动伸缩: " + e.getMessage());
+                brokerUnavailable = true;
+            }
+            return;
+        }
+        lastQueueDepth = depth;
+
+        double latencyMs = sampleLatency();
+        boolean databaseSaturated = isDatabaseSaturated();
+        boolean overloaded = databaseSaturated || latencyMs > maxLatencyMs;
+
+        int current = getConsumers();
+        int target = current;
+        boolean catchingUp = depth > current * messagesPerConsumer;
+        if (overloaded) {
+            target = Math.max(minConsumers, current - 1);
+        } else if (catchingUp) {
+            long needed = (depth + messagesPerConsumer - 1) / messagesPerConsumer;
+            target = (int) Math.min(maxConsumers, Math.max(current + 1, Math.min(current * 2L, needed)));
+        } else if (depth < (current - 1) * messagesPerConsumer / 2) {
+            // 积压回落到缩容后仍有余量时才缩容，避免在阈值附近来回抖动
+            target = Math.max(minConsumers, current - 1);
+        }
+
+        int targetPrefetch = catchingUp && !overloaded ? maxPrefetch : prefetch;
+        if (target == current && targetPrefetch == getPrefetch()) {
+            return;
+        }
+
+        System.out.println("⚖️ [QUERY-RABBITMQ] 调整消费者: " + current + " -> " + target
+                + ", prefetch " + getPrefetch() + " -> " + targetPrefetch
+                + " (积压=" + depth + ", 耗时=" + String.format("%.1f", latencyMs) + "ms"
+                + ", 数据库饱和=" + databaseSaturated + ")");
+        try {
+            container.setPrefetchCount(targetPrefetch);
+            currentPrefetch = targetPrefetch;
+            container.setConcurrentConsumers(target);
+            consumers = target;
+        } catch (AmqpException | IllegalArgumentException e) {
+            System.err.println("❌ [QUERY-RABBITMQ] 调整消费者失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取出本周期的平均处理耗时；周期内没有消息时耗时归零，避免沿用过期的高值阻止扩容
+     */
+    private synchronized double sampleLatency() {
+        if (samplesSinceLastCheck == 0) {
+            latencyEwmaMs = 0;
+        }
+        samplesSinceLastCheck = 0;
+        return latencyEwmaMs;
+    }
+
+    private boolean isDatabaseSaturated() {
+        HikariPoolMXBean pool = queryDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return false;
+        }
+        double utilization = pool.getActiveConnections() / (double) queryDataSource.getMaximumPoolSize();
+        return utilization >= maxPoolUtilization || pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    public int getConsumers() {
+        return consumers == 0 ? minConsumers : consumers;
+    }
+
+    public int getPrefetch() {
+        return currentPrefetch == 0 ? prefetch : currentPrefetch;
+    }
+
+    public long getLastQueueDepth() {
+        return lastQueueDepth;
+    }
+}
@@ -0,0 +1,189 @@
+package com.eventbridge.query.infrastructure.events;
+
+import com.eventbridge.config.PartitionedQueuesConfig;
+import com.eventbridge.config.QueryDataSourceConfig;
+import com.eventbridge.query.infrastructure.model.PartitionMember;
+import com.eventbridge.query.infrastructure.persistence.PartitionMemberRepository;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分区分配
+ *
+ * 每个节点定期在查询库 partition_members 表中写入心跳，心跳超过 member-timeout-ms 的节点视为已离开。
+ * 分区按 rendezvous（最高随机权重）哈希分配：分区 p 归属于 hash(节点, p) 最大的存活节点，
+ * 节点加入或离开时只有与其相关的分区会迁移。本节点为分配到的每个分区启动一个单消费者容器。
+ */
+@Component
+@ConditionalOnProperty(name = "eventbridge.rabbitmq.partitions.enabled", havingValue = "true")
+public class PartitionAssignmentManager {
+
+    private final PartitionMemberRepository memberRepository;
+    private final ConnectionFactory connectionFactory;
+    private final RabbitMQEventsListener eventsListener;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationContext applicationContext;
+
+    @Value("${eventbridge.rabbitmq.partitions.count:8}")
+    private int partitionCount;
+
+    @Value("${eventbridge.rabbitmq.partitions.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${eventbridge.rabbitmq.partitions.member-timeout-ms:15000}")
+    private long memberTimeoutMs;
+
+    @Value("${eventbridge.rabbitmq.listener.prefetch:50}")
+    private int prefetch;
+
+    private String nodeId;
+    private final Map<Integer, SimpleMessageListenerContainer> containers = new ConcurrentHashMap<>();
+
+    public PartitionAssignmentManager(PartitionMemberRepository memberRepository,
+                                      ConnectionFactory connectionFactory,
+                                      RabbitMQEventsListener eventsListener,
+                                      @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                                      ApplicationContext applicationContext) {
+        this.memberRepository = memberRepository;
+        this.connectionFactory = connectionFactory;
+        this.eventsListener = eventsListener;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 写入心跳并按当前存活成员重新计算分配
+     */
+    @Scheduled(fixedDelayString = "${eventbridge.rabbitmq.partitions.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiredBefore = now.minus(Duration.ofMillis(memberTimeoutMs));
+        List<String> members;
+        try {
+            members = transactionTemplate.execute(status -> {
+                memberRepository.save(new PartitionMember(getNodeId(), now));
+                memberRepository.deleteExpired(expiredBefore);
+                return memberRepository.findByLastHeartbeatAfter(expiredBefore)
+                        .stream().map(PartitionMember::getNodeId).toList();
+            });
+        } catch (Exception e) {
+            System.err.println("❌ [QUERY-RABBITMQ] 分区心跳失败: " + e.getMessage());
+            return;
+        }
+        rebalance(assign(getNodeId(), members, partitionCount));
+    }
+
+    /**
+     * rendezvous 哈希：返回指定节点拥有的分区
+     */
+    public static Set<Integer> assign(String nodeId, List<String> members, int partitionCount) {
+        Set<Integer> owned = new TreeSet<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            String owner = null;
+            long best = Long.MIN_VALUE;
+            for (String member : members) {
+                long score = mix(member.hashCode() * 31L + partition);
+                if (owner == null || score > best || (score == best && member.compareTo(owner) < 0)) {
+                    owner = member;
+                    best = score;
+                }
+            }
+            if (nodeId.equals(owner)) {
+                owned.add(partition);
+            }
+        }
+        return owned;
+    }
+
+    private synchronized void rebalance(Set<Integer> assigned) {
+        if (assigned.equals(containers.keySet())) {
+            return;
+        }
+        containers.keySet().stream().filter(partition -> !assigned.contains(partition)).toList()
+                .forEach(partition -> containers.remove(partition).stop());
+        for (Integer partition : assigned) {
+            containers.computeIfAbsent(partition, this::startContainer);
+        }
+        System.out.println("⚖️ [QUERY-RABBITMQ] 节点 " + getNodeId() + " 分配到分区: " + new TreeSet<>(containers.keySet()));
+    }
+
+    private SimpleMessageListenerContainer startContainer(int partition) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(PartitionedQueuesConfig.partitionQueue(partition));
+        // 单消费者保证分区内按顺序处理
+        container.setConcurrentConsumers(1);
+        container.setPrefetchCount(prefetch);
+        container.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        // 观测注册表从容器上下文中获取
+        container.setApplicationContext(applicationContext);
+        container.setObservationEnabled(true);
+        container.setMessageListener(message ->
+                eventsListener.handleUserEvent(message, message.getMessageProperties().getReceivedRoutingKey()));
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    /**
+     * 停机时注销成员并停止消费，其他节点在下一次心跳时接管分区
+     */
+    @PreDestroy
+    public void leave() {
+        containers.values().forEach(SimpleMessageListenerContainer::stop);
+        containers.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status -> memberRepository.deleteById(getNodeId()));
+        } catch (Exception e) {
+            System.err.println("❌ [QUERY-RABBITMQ] 注销分区成员失败: " + e.getMessage());
+        }
+    }
+
+    public Set<Integer> getAssignedPartitions() {
+        return new TreeSet<>(containers.keySet());
+    }
+
+    public String getNodeId() {
+        if (nodeId == null) {
+            nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        }
+        return nodeId;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * SplitMix64 混淆，使节点与分区组合的权重均匀分布
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
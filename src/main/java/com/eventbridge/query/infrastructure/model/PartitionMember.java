@@ -0,0 +1,29 @@
+package com.eventbridge.query.infrastructure.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分区消费成员：参与分区分配的应用节点及其最近一次心跳
+ */
+@Entity
+@Table(name = "partition_members")
+@Getter
+@Setter
+public class PartitionMember {
+    @Id
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastHeartbeat;
+
+    public PartitionMember() {}
+
+    public PartitionMember(String nodeId, LocalDateTime lastHeartbeat) {
+        this.nodeId = nodeId;
+        this.lastHeartbeat = lastHeartbeat;
+    }
+}
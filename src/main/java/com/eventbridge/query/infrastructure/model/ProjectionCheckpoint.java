@@ -0,0 +1,33 @@
+package com.eventbridge.query.infrastructure.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 投影检查点：每个投影已连续应用到的事件位置
+ * 与投影写入位于同一个查询端事务中，检查点永远不会超前于读模型
+ */
+@Entity
+@Table(name = "projection_checkpoints")
+@Getter
+@Setter
+public class ProjectionCheckpoint {
+    @Id
+    private String projectionName;
+
+    @Column(nullable = false)
+    private long position;
+
+    private LocalDateTime updatedAt;
+
+    public ProjectionCheckpoint() {}
+
+    public ProjectionCheckpoint(String projectionName, long position) {
+        this.projectionName = projectionName;
+        this.position = position;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,9 +1,12 @@
 package com.eventbridge.query.infrastructure.model;
 
 import com.eventbridge.command.domain.model.UserStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -12,7 +15,7 @@ import java.time.LocalDateTime;
 @Table(name = "user_views")
 @Getter
 @Setter
-public class UserView {
+public class UserView implements Persistable<String> {
     @Id
     private String userId;
 
@@ -29,6 +32,15 @@ public class UserView {
 
     private LocalDateTime lastUpdated;
 
+    /**
+     * 创建路径已确认读模型中不存在该用户时置为 true，save() 直接 persist（只有 INSERT），
+     * 否则 Spring Data 对手动分配 ID 的实体走 merge，会先 SELECT 一次
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newView;
+
     // constructors, getters, setters
     public UserView() {}
 
@@ -41,6 +53,31 @@ public class UserView {
         this.lastUpdated = LocalDateTime.now();
     }
 
+    /**
+     * 标记为新建的用户视图
+     */
+    public void markNew() {
+        this.newView = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return userId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newView;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.newView = false;
+    }
+
     public void updateEmail(String newEmail) {
         this.email = newEmail;
         this.lastUpdated = LocalDateTime.now();
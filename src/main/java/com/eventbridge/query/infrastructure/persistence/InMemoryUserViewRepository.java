@@ -0,0 +1,184 @@
+package com.eventbridge.query.infrastructure.persistence;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 纯内存读模型存储
+ *
+ * 数据结构：
+ * - 主表：userId -> 紧凑记录
+ * - 用户名索引：username -> userId
+ * - 状态索引：每个 UserStatus 一个 userId 集合
+ *
+ * 读操作完全无锁（ConcurrentHashMap），写操作串行化以保证三个结构之间的一致性。
+ * 由已注册的事件处理器通过 save() 增量维护，对外返回的 UserView 均为副本，
+ * 调用方修改返回对象不会影响存储，必须重新 save()。
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "eventbridge.query.store", havingValue = "memory")
+public class InMemoryUserViewRepository implements UserViewRepository {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> usernameIndex = new ConcurrentHashMap<>();
+    private final Map<UserStatus, Set<String>> statusIndex = new EnumMap<>(UserStatus.class);
+    private final Object writeLock = new Object();
+
+    public InMemoryUserViewRepository() {
+        for (UserStatus status : UserStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+        System.out.println("🧠 InMemoryUserViewRepository 已启用 - 查询端读模型不再经过数据库");
+    }
+
+    @Override
+    public Optional<UserView> findById(String userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? Optional.empty() : Optional.of(entry.toView(userId));
+    }
+
+    @Override
+    public boolean existsById(String userId) {
+        return entries.containsKey(userId);
+    }
+
+    @Override
+    public boolean existsByUserId(String userId) {
+        return existsById(userId);
+    }
+
+    @Override
+    public Optional<UserView> findByUsername(String username) {
+        String userId = usernameIndex.get(username);
+        return userId == null ? Optional.empty() : findById(userId);
+    }
+
+    @Override
+    public List<UserView> findByStatus(UserStatus status) {
+        Set<String> ids = statusIndex.get(status);
+        List<UserView> result = new ArrayList<>(ids.size());
+        for (String userId : ids) {
+            Entry entry = entries.get(userId);
+            // 写入过程中索引可能短暂领先于主表，以主表状态为准
+            if (entry != null && entry.status == status) {
+                result.add(entry.toView(userId));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<UserView> findAll() {
+        List<UserView> result = new ArrayList<>(entries.size());
+        entries.forEach((userId, entry) -> result.add(entry.toView(userId)));
+        return result;
+    }
+
+    @Override
+    public List<String> findAllUserIds() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    @Override
+    public long count() {
+        return entries.size();
+    }
+
+    @Override
+    public <S extends UserView> S save(S userView) {
+        String userId = userView.getUserId();
+        if (userId == null) {
+            throw new IllegalArgumentException("userId 不能为空");
+        }
+        Entry updated = Entry.of(userView);
+
+        synchronized (writeLock) {
+            Entry previous = entries.put(userId, updated);
+            if (previous != null) {
+                if (previous.username != null && !previous.username.equals(updated.username)) {
+                    usernameIndex.remove(previous.username, userId);
+                }
+                if (previous.status != updated.status && previous.status != null) {
+                    statusIndex.get(previous.status).remove(userId);
+                }
+            }
+            if (updated.username != null) {
+                usernameIndex.put(updated.username, userId);
+            }
+            if (updated.status != null) {
+                statusIndex.get(updated.status).add(userId);
+            }
+        }
+        return userView;
+    }
+
+    /**
+     * 清空所有数据（主要用于测试和快照恢复）
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            entries.clear();
+            usernameIndex.clear();
+            statusIndex.values().forEach(Set::clear);
+        }
+    }
+
+    /**
+     * 诊断方法：获取各状态的用户数量
+     */
+    public Map<UserStatus, Integer> getStatusCounts() {
+        Map<UserStatus, Integer> counts = new EnumMap<>(UserStatus.class);
+        statusIndex.forEach((status, ids) -> counts.put(status, ids.size()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * 不可变的紧凑记录，userId 作为 Map 的 key 不重复存储
+     */
+    private static final class Entry {
+        private final String username;
+        private final String email;
+        private final LocalDateTime createdAt;
+        private final UserStatus status;
+        private final LocalDateTime lastUpdated;
+
+        private Entry(String username, String email, LocalDateTime createdAt,
+                      UserStatus status, LocalDateTime lastUpdated) {
+            this.username = username;
+            this.email = email;
+            this.createdAt = createdAt;
+            this.status = status;
+            this.lastUpdated = lastUpdated;
+        }
+
+        private static Entry of(UserView view) {
+            return new Entry(view.getUsername(), view.getEmail(), view.getCreatedAt(),
+                    view.getStatus(), view.getLastUpdated());
+        }
+
+        private UserView toView(String userId) {
+            UserView view = new UserView();
+            view.setUserId(userId);
+            view.setUsername(username);
+            view.setEmail(email);
+            view.setCreatedAt(createdAt);
+            view.setStatus(status);
+            view.setLastUpdated(lastUpdated);
+            return view;
+        }
+    }
+}
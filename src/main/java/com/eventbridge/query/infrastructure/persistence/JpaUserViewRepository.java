@@ -0,0 +1,19 @@
+package com.eventbridge.query.infrastructure.persistence;
+
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 基于 JPA 的读模型存储（默认实现）
+ */
+@Repository
+public interface JpaUserViewRepository extends JpaRepository<UserView, String>, UserViewRepository {
+
+    @Override
+    @Query("select u.userId from UserView u")
+    List<String> findAllUserIds();
+}
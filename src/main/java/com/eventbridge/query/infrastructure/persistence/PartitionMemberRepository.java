@@ -0,0 +1,24 @@
+package com.eventbridge.query.infrastructure.persistence;
+
+import com.eventbridge.query.infrastructure.model.PartitionMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PartitionMemberRepository extends JpaRepository<PartitionMember, String> {
+
+    List<PartitionMember> findByLastHeartbeatAfter(LocalDateTime since);
+
+    /**
+     * 清理心跳过期的成员
+     */
+    @Modifying
+    @Query("delete from PartitionMember m where m.lastHeartbeat < :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,32 @@
+package com.eventbridge.query.infrastructure.persistence;
+
+import com.eventbridge.query.infrastructure.model.ProjectionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+
+    /**
+     * 只前移检查点，并发事务按任意顺序提交都不会让检查点回退
+     */
+    @Modifying
+    @Query("update ProjectionCheckpoint c set c.position = :position, c.updatedAt = :updatedAt " +
+            "where c.projectionName = :name and c.position < :position")
+    int advance(@Param("name") String name, @Param("position") long position,
+                @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 强制设置检查点（用于回退或快进）
+     */
+    @Modifying
+    @Query("update ProjectionCheckpoint c set c.position = :position, c.updatedAt = :updatedAt " +
+            "where c.projectionName = :name")
+    int reset(@Param("name") String name, @Param("position") long position,
+              @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,74 @@
+package com.eventbridge.query.infrastructure.persistence;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * 基于 R2DBC 的 user_views 只读访问
+ *
+ * 与 JPA 的 UserViewRepository 读同一张表，但不占用 JDBC 连接和请求线程；
+ * 列表查询按订阅方的需求逐行拉取，流式输出时不会把整张表一次性读入内存。
+ * 读模型存储为 memory 时 user_views 表不会被维护，此时不启用。
+ */
+@Repository
+@ConditionalOnExpression(ReactiveUserViewRepository.ENABLED)
+public class ReactiveUserViewRepository {
+
+    public static final String ENABLED =
+            "${eventbridge.query.reactive.enabled:true} and '${eventbridge.query.store:jpa}' == 'jpa'";
+
+    private static final String SELECT = "SELECT user_id, username, email, created_at, status, last_updated FROM user_views";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserViewRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<UserView> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY user_id")
+                .map(ReactiveUserViewRepository::toUserView)
+                .all();
+    }
+
+    public Mono<UserView> findById(String userId) {
+        return databaseClient.sql(SELECT + " WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(ReactiveUserViewRepository::toUserView)
+                .one();
+    }
+
+    public Mono<UserView> findByUsername(String username) {
+        return databaseClient.sql(SELECT + " WHERE username = :username")
+                .bind("username", username)
+                .map(ReactiveUserViewRepository::toUserView)
+                .one();
+    }
+
+    public Flux<UserView> findByStatus(UserStatus status) {
+        return databaseClient.sql(SELECT + " WHERE status = :status ORDER BY user_id")
+                .bind("status", status.name())
+                .map(ReactiveUserViewRepository::toUserView)
+                .all();
+    }
+
+    private static UserView toUserView(Readable row) {
+        UserView view = new UserView();
+        view.setUserId(row.get("user_id", String.class));
+        view.setUsername(row.get("username", String.class));
+        view.setEmail(row.get("email", String.class));
+        view.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        String status = row.get("status", String.class);
+        view.setStatus(status == null ? null : UserStatus.valueOf(status));
+        view.setLastUpdated(row.get("last_updated", LocalDateTime.class));
+        return view;
+    }
+}
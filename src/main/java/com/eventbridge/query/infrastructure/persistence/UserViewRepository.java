@@ -1,23 +1,34 @@
 package com.eventbridge.query.infrastructure.persistence;
 
 import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.config.QueryDataSourceConfig;
 import com.eventbridge.query.infrastructure.model.UserView;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
-@Repository
-public interface UserViewRepository extends JpaRepository<UserView, String> {
+/**
+ * 查询端读模型存储接口
+ * 默认由 JPA 实现（{@link JpaUserViewRepository}），
+ * 设置 eventbridge.query.store=memory 时切换为纯内存实现（{@link InMemoryUserViewRepository}）
+ */
+public interface UserViewRepository {
+    Optional<UserView> findById(String userId);
+    boolean existsById(String userId);
+    List<UserView> findAll();
+    // 只读取 ID，用于启动时构建布隆过滤器
+    List<String> findAllUserIds();
+    long count();
+    <S extends UserView> S save(S userView);
+
     Optional<UserView> findByUsername(String username);
     List<UserView> findByStatus(UserStatus status);
     // 添加存在性检查方法
     boolean existsByUserId(String userId);
 
     // 添加安全保存方法（如果需要）
-    @Transactional
+    @Transactional(QueryDataSourceConfig.TRANSACTION_MANAGER)
     default UserView saveIfNotExists(UserView userView) {
         if (!existsById(userView.getUserId())) {
             return save(userView);
@@ -0,0 +1,189 @@
+package com.eventbridge.query.infrastructure.snapshot;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 读模型快照文件（内存映射，紧凑二进制格式）
+ *
+ * 文件布局（大端序）：
+ * <pre>
+ * int    magic      'EBSV'
+ * short  version
+ * long   position   快照对应的连续已应用事件位置
+ * long   takenAt    快照时间（epoch millis）
+ * int    count      记录数
+ * record * count:
+ *   string userId, string username, string email   （int 长度 + UTF-8，-1 表示 null）
+ *   time   createdAt                               （long epochSecond(UTC) + int nano，Long.MIN_VALUE 表示 null）
+ *   byte   status                                  （ordinal，-1 表示 null）
+ *   time   lastUpdated
+ * long   crc32      以上所有内容的 CRC32
+ * </pre>
+ *
+ * 写入时先写临时文件再原子替换，读取方永远不会看到写了一半的快照。
+ */
+public final class UserViewSnapshotFile {
+
+    private static final int MAGIC = 0x45425356;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 4;
+    private static final int TRAILER_SIZE = 8;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private UserViewSnapshotFile() {
+    }
+
+    /**
+     * 快照内容
+     */
+    public record Snapshot(long position, long takenAt, List<UserView> views) {
+    }
+
+    public static void write(Path path, long position, Collection<UserView> views) throws IOException {
+        // 先编码字符串，计算精确的文件大小
+        List<byte[][]> encoded = new ArrayList<>(views.size());
+        long size = HEADER_SIZE + TRAILER_SIZE;
+        for (UserView view : views) {
+            byte[][] strings = {utf8(view.getUserId()), utf8(view.getUsername()), utf8(view.getEmail())};
+            encoded.add(strings);
+            for (byte[] bytes : strings) {
+                size += 4 + (bytes == null ? 0 : bytes.length);
+            }
+            size += (8 + 4) * 2 + 1;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("快照过大，超出单个映射区域: " + size + " bytes");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putLong(position);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.putInt(views.size());
+
+            int i = 0;
+            for (UserView view : views) {
+                byte[][] strings = encoded.get(i++);
+                for (byte[] bytes : strings) {
+                    putBytes(buffer, bytes);
+                }
+                putTime(buffer, view.getCreatedAt());
+                buffer.put(view.getStatus() == null ? (byte) -1 : (byte) view.getStatus().ordinal());
+                putTime(buffer, view.getLastUpdated());
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit(buffer.position()));
+            buffer.putLong(crc.getValue());
+            buffer.force();
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("快照文件不完整: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - TRAILER_SIZE));
+            if (crc.getValue() != buffer.getLong((int) size - TRAILER_SIZE)) {
+                throw new IOException("快照文件校验失败: " + path);
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("不是读模型快照文件: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("不支持的快照版本: " + version);
+            }
+            long position = buffer.getLong();
+            long takenAt = buffer.getLong();
+            int count = buffer.getInt();
+
+            UserStatus[] statuses = UserStatus.values();
+            List<UserView> views = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UserView view = new UserView();
+                view.setUserId(getString(buffer));
+                view.setUsername(getString(buffer));
+                view.setEmail(getString(buffer));
+                view.setCreatedAt(getTime(buffer));
+                byte status = buffer.get();
+                view.setStatus(status < 0 ? null : statuses[status]);
+                view.setLastUpdated(getTime(buffer));
+                views.add(view);
+            }
+            return new Snapshot(position, takenAt, views);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(MappedByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(MappedByteBuffer buffer, LocalDateTime time) {
+        if (time == null) {
+            buffer.putLong(NULL_TIME);
+            buffer.putInt(0);
+        } else {
+            buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime getTime(MappedByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NULL_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,160 @@
+package com.eventbridge.query.web;
+
+import com.eventbridge.query.application.changefeed.UserViewChange;
+import com.eventbridge.query.application.changefeed.UserViewChangeFeed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * UserView 变更流接口：按事件位置增量获取变更，替代定时拉取全表
+ *
+ * GET /api/users/changes?after=P         长轮询，有新变更立即返回一批，否则最多等待 long-poll-timeout-ms
+ * GET /api/users/changes/stream?after=P  Server-Sent Events，事件 id 即位置，断线后可用 Last-Event-ID 续读
+ * 续读位置早于缓冲区时返回 410，客户端需要重新全量同步。
+ */
+@RestController
+@RequestMapping("/api/users/changes")
+public class ChangeFeedController {
+
+    private final UserViewChangeFeed changeFeed;
+    private final TaskExecutor queryExecutor;
+
+    @Value("${eventbridge.query.change-feed.long-poll-timeout-ms:30000}")
+    private long longPollTimeoutMs;
+
+    @Value("${eventbridge.query.change-feed.batch-size:500}")
+    private int batchSize;
+
+    public ChangeFeedController(UserViewChangeFeed changeFeed,
+                                @Qualifier("queryExecutor") TaskExecutor queryExecutor) {
+        this.changeFeed = changeFeed;
+        this.queryExecutor = queryExecutor;
+    }
+
+    @GetMapping
+    public DeferredResult<ChangeBatch> poll(@RequestParam(defaultValue = "0") long after,
+                                            @RequestParam(required = false) Integer limit) {
+        int max = limit == null ? batchSize : Math.min(limit, batchSize);
+        DeferredResult<ChangeBatch> result = new DeferredResult<>(longPollTimeoutMs, new ChangeBatch(after, List.of()));
+
+        List<UserViewChange> changes = changeFeed.readAfter(after, max);
+        if (!changes.isEmpty()) {
+            result.setResult(ChangeBatch.of(after, changes));
+            return result;
+        }
+
+        Consumer<Long> listener = latest -> {
+            if (latest > after && !result.isSetOrExpired()) {
+                try {
+                    result.setResult(ChangeBatch.of(after, changeFeed.readAfter(after, max)));
+                } catch (UserViewChangeFeed.ChangeFeedExpiredException e) {
+                    result.setErrorResult(e);
+                }
+            }
+        };
+        changeFeed.addListener(listener);
+        result.onCompletion(() -> changeFeed.removeListener(listener));
+        // 注册监听前可能已有新变更到达
+        listener.accept(changeFeed.getLatestPosition());
+        return result;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long after,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : changeFeed.getLatestPosition();
+        // 提前校验续读位置，过期时直接返回 410
+        changeFeed.readAfter(from, 1);
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, from);
+        changeFeed.addListener(subscriber);
+        emitter.onCompletion(() -> changeFeed.removeListener(subscriber));
+        emitter.onTimeout(() -> changeFeed.removeListener(subscriber));
+        emitter.onError(e -> changeFeed.removeListener(subscriber));
+        subscriber.accept(changeFeed.getLatestPosition());
+        return emitter;
+    }
+
+    @ExceptionHandler(UserViewChangeFeed.ChangeFeedExpiredException.class)
+    public ResponseEntity<Map<String, String>> handleExpired(UserViewChangeFeed.ChangeFeedExpiredException e) {
+        return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * 一批变更，nextAfter 为下一次请求应使用的 after 参数
+     */
+    public record ChangeBatch(long nextAfter, List<UserViewChange> changes) {
+        static ChangeBatch of(long after, List<UserViewChange> changes) {
+            long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).position();
+            return new ChangeBatch(next, changes);
+        }
+    }
+
+    /**
+     * SSE 订阅者：通知只负责调度，实际发送在 queryExecutor 上串行执行，慢客户端不会阻塞投影线程
+     */
+    private final class Subscriber implements Consumer<Long> {
+        private final SseEmitter emitter;
+        private final AtomicLong lastSent;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, long from) {
+            this.emitter = emitter;
+            this.lastSent = new AtomicLong(from);
+        }
+
+        @Override
+        public void accept(Long latest) {
+            if (closed || latest <= lastSent.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            queryExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                List<UserViewChange> changes;
+                while (!closed && !(changes = changeFeed.readAfter(lastSent.get(), batchSize)).isEmpty()) {
+                    for (UserViewChange change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.position()))
+                                .name(change.type().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        lastSent.set(change.position());
+                    }
+                }
+            } catch (IOException | IllegalStateException | UserViewChangeFeed.ChangeFeedExpiredException e) {
+                // 客户端断开或消费过慢导致位置过期，关闭连接，客户端用 Last-Event-ID 重连
+                closed = true;
+                changeFeed.removeListener(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // 发送期间可能有新变更到达
+            accept(changeFeed.getLatestPosition());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.eventbridge.query.web;
+
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.query.application.projection.ProjectionCheckpointStore;
+import com.eventbridge.query.application.projection.ProjectionReplayer;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 投影运维接口：查看进度与滞后、被搁置的事件，继续、回退或快进投影
+ */
+@RestController
+@RequestMapping("/api/projections")
+public class ProjectionController {
+
+    private final ProjectionTracker projectionTracker;
+    private final ProjectionCheckpointStore checkpointStore;
+    private final ProjectionReplayer projectionReplayer;
+    private final EventStore eventStore;
+
+    public ProjectionController(ProjectionTracker projectionTracker,
+                                ProjectionCheckpointStore checkpointStore,
+                                ProjectionReplayer projectionReplayer,
+                                EventStore eventStore) {
+        this.projectionTracker = projectionTracker;
+        this.checkpointStore = checkpointStore;
+        this.projectionReplayer = projectionReplayer;
+        this.eventStore = eventStore;
+    }
+
+    @GetMapping
+    public List<ProjectionStatus> getProjections() {
+        long head = eventStore.getHeadPosition();
+        return projectionTracker.getProjectionNames().stream()
+                .sorted()
+                .map(name -> status(name, head))
+                .toList();
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<ProjectionStatus> getProjection(@PathVariable String name) {
+        if (!projectionTracker.getProjectionNames().contains(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status(name, eventStore.getHeadPosition()));
+    }
+
+    /**
+     * 多次回放仍无法应用、已被跳过的事件
+     */
+    @GetMapping("/{name}/parked")
+    public ResponseEntity<List<ProjectionReplayer.ParkedEvent>> getParkedEvents(@PathVariable String name) {
+        if (!ProjectionTracker.USER_VIEWS.equals(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(projectionReplayer.getParkedEvents());
+    }
+
+    @PostMapping("/{name}/resume")
+    public ResponseEntity<?> resume(@PathVariable String name) {
+        return operate(name, () -> projectionReplayer.resume(name));
+    }
+
+    @PostMapping("/{name}/rewind")
+    public ResponseEntity<?> rewind(@PathVariable String name, @RequestParam long position) {
+        return operate(name, () -> projectionReplayer.rewind(name, position));
+    }
+
+    @PostMapping("/{name}/fast-forward")
+    public ResponseEntity<?> fastForward(@PathVariable String name, @RequestParam long position) {
+        return operate(name, () -> projectionReplayer.fastForward(name, position));
+    }
+
+    private ResponseEntity<?> operate(String name, Runnable operation) {
+        if (!projectionTracker.getProjectionNames().contains(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            operation.run();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        // 回放在后台执行，返回发起操作时的进度
+        return ResponseEntity.accepted().body(status(name, eventStore.getHeadPosition()));
+    }
+
+    private ProjectionStatus status(String name, long head) {
+        long position = projectionTracker.getLastAppliedPosition(name);
+        return new ProjectionStatus(
+                name,
+                position,
+                projectionTracker.getHighestSeenPosition(name),
+                checkpointStore.getPersistedPosition(name),
+                head,
+                Math.max(0, head - position));
+    }
+
+    /**
+     * 投影进度
+     *
+     * @param position           连续已应用的事件位置
+     * @param highestSeen        已应用的最大事件位置（可能存在空缺）
+     * @param checkpointPosition 已持久化的检查点位置
+     * @param headPosition       事件日志最新位置
+     * @param lag                落后的事件位置数
+     */
+    public record ProjectionStatus(String name,
+                                   long position,
+                                   long highestSeen,
+                                   long checkpointPosition,
+                                   long headPosition,
+                                   long lag) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.eventbridge.query.web;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.query.application.ConsistencyGate;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.ReactiveUserViewRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式用户查询接口，与 /api/users 语义相同，基于 R2DBC
+ *
+ * 请求在等待一致性令牌和读库期间不占用 Servlet 线程与 JDBC 连接，并发读取不再受线程池大小限制。
+ * 列表接口返回完整 JSON 数组；/stream 以 application/x-ndjson 逐条流式输出，
+ * 按客户端的消费速度从读库拉取（背压），大结果集不会整体驻留内存。
+ */
+@RestController
+@RequestMapping("/api/reactive/users")
+@ConditionalOnExpression(ReactiveUserViewRepository.ENABLED)
+public class ReactiveUserQueryController {
+
+    private final ReactiveUserViewRepository reactiveUserViewRepository;
+    private final ConsistencyGate consistencyGate;
+
+    public ReactiveUserQueryController(ReactiveUserViewRepository reactiveUserViewRepository,
+                                       ConsistencyGate consistencyGate) {
+        this.reactiveUserViewRepository = reactiveUserViewRepository;
+        this.consistencyGate = consistencyGate;
+    }
+
+    @GetMapping
+    public Flux<UserView> getAllUsers(@RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return afterToken(token).thenMany(reactiveUserViewRepository.findAll());
+    }
+
+    /**
+     * 逐条流式输出全部用户，写出速度跟随客户端的消费速度
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserView> streamAllUsers(@RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return afterToken(token).thenMany(reactiveUserViewRepository.findAll());
+    }
+
+    @GetMapping("/active")
+    public Flux<UserView> getActiveUsers(@RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return afterToken(token).thenMany(reactiveUserViewRepository.findByStatus(UserStatus.ACTIVE));
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<UserView> getUser(@PathVariable String userId,
+                                  @RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return afterToken(token).then(reactiveUserViewRepository.findById(userId));
+    }
+
+    @GetMapping("/by-username/{username}")
+    public Mono<UserView> getUserByUsername(@PathVariable String username,
+                                            @RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return afterToken(token).then(reactiveUserViewRepository.findByUsername(username));
+    }
+
+    private Mono<Void> afterToken(Long token) {
+        return Mono.fromFuture(() -> consistencyGate.awaitToken(token));
+    }
+}
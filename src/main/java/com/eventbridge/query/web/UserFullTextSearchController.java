@@ -0,0 +1,66 @@
+package com.eventbridge.query.web;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.application.search.FullTextSearchPage;
+import com.eventbridge.query.application.search.LuceneUserIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 用户全文检索接口（Lucene 索引，近实时，写入后约一个刷新间隔可见）
+ */
+@RestController
+@RequestMapping("/api/users/fulltext")
+@ConditionalOnProperty(prefix = "eventbridge.query.lucene", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserFullTextSearchController {
+
+    private final LuceneUserIndex luceneUserIndex;
+
+    public UserFullTextSearchController(LuceneUserIndex luceneUserIndex) {
+        this.luceneUserIndex = luceneUserIndex;
+    }
+
+    @GetMapping
+    public FullTextSearchPage search(@RequestParam("q") String query,
+                                     @RequestParam(required = false) String status,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) throws IOException {
+        return luceneUserIndex.search(query, parseStatus(status), page, size);
+    }
+
+    /**
+     * 从写模型重建全文索引
+     */
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        int documents = luceneUserIndex.rebuild();
+        return Map.of("documents", documents, "elapsedMs", System.currentTimeMillis() - start);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidQuery(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private static UserStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return UserStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的用户状态: " + status);
+        }
+    }
+}
@@ -1,33 +1,75 @@
 package com.eventbridge.query.web;
 
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.query.application.ConsistencyGate;
+import com.eventbridge.query.application.search.UserSearchIndex;
+import com.eventbridge.query.application.search.UserSearchPage;
 import com.eventbridge.query.infrastructure.model.UserView;
 import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 用户查询接口
+ * 请求带上命令接口返回的 X-Consistency-Token 头时，保证能读到该命令的写入结果
+ * /search 按用户名或邮箱做前缀 / 子串搜索，分页返回
+ */
 @RestController
 @RequestMapping("/api/users")
 public class UserQueryController {
 
     private final UserViewRepository userViewRepository;
+    private final ConsistencyGate consistencyGate;
+    private final UserSearchIndex userSearchIndex;
 
-    public UserQueryController(UserViewRepository userViewRepository) {
+    public UserQueryController(UserViewRepository userViewRepository, ConsistencyGate consistencyGate,
+                               UserSearchIndex userSearchIndex) {
         this.userViewRepository = userViewRepository;
+        this.consistencyGate = consistencyGate;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @GetMapping
-    public List<UserView> getAllUsers() {
-        return userViewRepository.findAll();
+    public CompletableFuture<List<UserView>> getAllUsers(
+            @RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return consistencyGate.afterToken(token, userViewRepository::findAll);
     }
 
     @GetMapping("/{userId}")
-    public UserView getUser(@PathVariable String userId) {
-        Optional<UserView> userOpt = userViewRepository.findById(userId);
-        return userOpt.orElse(null);
+    public CompletableFuture<UserView> getUser(@PathVariable String userId,
+                                               @RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        return consistencyGate.afterToken(token, () -> {
+            Optional<UserView> userOpt = userViewRepository.findById(userId);
+            return userOpt.orElse(null);
+        });
+    }
+
+    /**
+     * 搜索用户名或邮箱（不区分大小写），mode 为 prefix 或 substring
+     */
+    @GetMapping("/search")
+    public CompletableFuture<UserSearchPage> search(@RequestParam("q") String query,
+                                                    @RequestParam(defaultValue = "substring") String mode,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size,
+                                                    @RequestHeader(value = ConsistencyToken.HEADER, required = false) Long token) {
+        UserSearchIndex.Mode searchMode = userSearchIndex.validate(query, mode, page, size);
+        return consistencyGate.afterToken(token, () -> userSearchIndex.search(query, searchMode, page, size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidQuery(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
 }
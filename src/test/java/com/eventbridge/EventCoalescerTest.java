@@ -0,0 +1,81 @@
+package com.eventbridge;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+import com.eventbridge.common.event.EventCoalescer;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCoalescerTest {
+
+    @Test
+    void testConsecutiveEmailUpdatesKeepLast() {
+        DomainEvent u1 = update("u1", "a@example.com");
+        DomainEvent u2 = update("u1", "b@example.com");
+        DomainEvent u3 = update("u1", "c@example.com");
+
+        List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(List.of(u1, u2, u3));
+
+        // 只保留最后一个更新，前两个被吸收
+        assertEquals(1, folded.size());
+        assertSame(u3, folded.get(0).event());
+        assertEquals(List.of(u1, u2), folded.get(0).absorbed());
+    }
+
+    @Test
+    void testCreateTakesFinalEmail() {
+        DomainEvent created = new UserCreatedEvent("u1", "alice", "a@example.com", LocalDateTime.now());
+        DomainEvent u1 = update("u1", "b@example.com");
+        DomainEvent u2 = update("u1", "c@example.com");
+
+        List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(List.of(created, u1, u2));
+
+        // 创建事件直接携带最终邮箱，最后一个更新保留
+        assertEquals(2, folded.size());
+        UserCreatedEvent merged = (UserCreatedEvent) folded.get(0).event();
+        assertEquals("c@example.com", merged.getEmail());
+        assertEquals(created.getEventId(), merged.getEventId());
+        assertSame(u2, folded.get(1).event());
+        assertEquals(List.of(u1), folded.get(1).absorbed());
+    }
+
+    @Test
+    void testDeactivationKeepsLastEmailUpdate() {
+        DomainEvent u1 = update("u1", "b@example.com");
+        DomainEvent u2 = update("u1", "c@example.com");
+        DomainEvent d1 = new UserDeactivatedEvent("u1");
+        DomainEvent d2 = new UserDeactivatedEvent("u1");
+
+        List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(List.of(u1, u2, d1, d2));
+
+        // 停用不改变邮箱，最后的邮箱更新必须保留；重复停用被合并
+        assertEquals(2, folded.size());
+        assertSame(u2, folded.get(0).event());
+        assertSame(d1, folded.get(1).event());
+        assertEquals(List.of(d2), folded.get(1).absorbed());
+    }
+
+    @Test
+    void testOtherAggregatesAreNotAffected() {
+        DomainEvent a1 = update("u1", "a1@example.com");
+        DomainEvent b1 = update("u2", "b1@example.com");
+        DomainEvent a2 = update("u1", "a2@example.com");
+
+        List<EventCoalescer.Folded> folded = EventCoalescer.coalesce(List.of(a1, b1, a2));
+
+        assertEquals(2, folded.size());
+        assertSame(b1, folded.get(0).event());
+        assertSame(a2, folded.get(1).event());
+        assertEquals(List.of(a1), folded.get(1).absorbed());
+    }
+
+    private DomainEvent update(String userId, String email) {
+        return new UserEmailUpdatedEvent(userId, email);
+    }
+}
@@ -0,0 +1,59 @@
+package com.eventbridge;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.common.event.EventEnvelope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventEnvelopeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testSmallEnvelopeIsNotCompressed() throws Exception {
+        Message message = EventEnvelope.pack(events(2), objectMapper, 4096);
+
+        assertTrue(EventEnvelope.isEnvelope(message));
+        assertNull(message.getMessageProperties().getContentEncoding());
+        assertEquals(2, EventEnvelope.unpack(message, objectMapper).size());
+    }
+
+    @Test
+    void testLargeEnvelopeIsCompressedAndKeepsOrder() throws Exception {
+        List<DomainEvent> events = events(50);
+        Message message = EventEnvelope.pack(events, objectMapper, 1024);
+
+        // 超过阈值后使用 LZ4 压缩，体积明显减小
+        assertEquals(EventEnvelope.LZ4_ENCODING, message.getMessageProperties().getContentEncoding());
+        assertTrue(message.getBody().length < objectMapper.writeValueAsBytes(events).length);
+
+        // 解包后事件顺序与发布顺序一致
+        List<Map<String, Object>> unpacked = EventEnvelope.unpack(message, objectMapper);
+        assertEquals(50, unpacked.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(events.get(i).getEventId(), unpacked.get(i).get("eventId"));
+            assertEquals("UserCreated", unpacked.get(i).get("eventType"));
+        }
+    }
+
+    private List<DomainEvent> events(int count) {
+        List<DomainEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new UserCreatedEvent("user-" + i, "user" + i, "user" + i + "@example.com", LocalDateTime.now()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,137 @@
+package com.eventbridge;
+
+import com.eventbridge.common.event.EventLaneProperties;
+import com.eventbridge.common.event.EventLanes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLanesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventLanes lanes;
+
+    @BeforeEach
+    void setUp() {
+        EventLaneProperties properties = new EventLaneProperties();
+        properties.setOfferTimeoutMs(50);
+        properties.getLanes().put("critical", lane(List.of("UserDeactivated"), 1, 10, 8));
+        properties.getLanes().put("bulk", lane(List.of("UserEmailUpdated"), 1, 1, 3));
+        lanes = new EventLanes(properties, meterRegistry);
+        lanes.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void testSlowLaneDoesNotBlockOtherLanes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.submit("UserEmailUpdated", "u1", () -> awaitQuietly(release));
+
+        // bulk 通道被占住，critical 通道照常处理
+        lanes.submit("UserDeactivated", "u2", () -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals("default", lanes.laneOf("UserCreated"));
+        release.countDown();
+    }
+
+    @Test
+    void testSameAggregateKeepsOrderAcrossLanes() throws Exception {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.submit("UserEmailUpdated", "u1", () -> {
+            awaitQuietly(release);
+            applied.add("email");
+        });
+        CompletableFuture<Void> deactivated = lanes.submit("UserDeactivated", "u1", () -> applied.add("deactivate"));
+
+        // 停用在另一个通道，但必须等同一用户之前的邮箱更新完成
+        Thread.sleep(100);
+        assertTrue(applied.isEmpty());
+        release.countDown();
+        deactivated.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("email", "deactivate"), applied);
+    }
+
+    @Test
+    void testFullLaneRejectsAfterOfferTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.submit("UserEmailUpdated", "u1", () -> awaitQuietly(release));
+        // 1 个执行中 + 1 个排队占满 bulk 通道
+        Thread.sleep(50);
+        lanes.submit("UserEmailUpdated", "u2", () -> { });
+        CompletableFuture<Void> rejected = lanes.submit("UserEmailUpdated", "u3", () -> { });
+
+        assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("eventbridge.lane.rejected").tag("lane", "bulk").counter().count());
+        assertEquals(3.0, meterRegistry.get("eventbridge.lane.submitted").tag("lane", "bulk").counter().count());
+        assertEquals(1.0, meterRegistry.get("eventbridge.lane.queued").tag("lane", "bulk").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void testSaturatedLaneDoesNotStallOtherLaneWorkers() throws Exception {
+        EventLaneProperties properties = new EventLaneProperties();
+        properties.setOfferTimeoutMs(2000);
+        properties.getLanes().put("critical", lane(List.of("UserDeactivated"), 1, 10, 8));
+        properties.getLanes().put("bulk", lane(List.of("UserEmailUpdated"), 1, 1, 3));
+        EventLanes saturated = new EventLanes(properties, new SimpleMeterRegistry());
+        saturated.init();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // bulk 通道：1 个执行中 + 1 个排队，已满
+            saturated.submit("UserEmailUpdated", "u1", () -> awaitQuietly(release));
+            Thread.sleep(50);
+            saturated.submit("UserEmailUpdated", "u2", () -> { });
+
+            // a 的邮箱更新接在 critical 通道的停用之后，停用完成时 bulk 通道仍然满
+            long start = System.nanoTime();
+            saturated.submit("UserDeactivated", "a", () -> sleepQuietly(100));
+            saturated.submit("UserEmailUpdated", "a", () -> { });
+            CompletableFuture<Void> other = saturated.submit("UserDeactivated", "b", () -> { });
+
+            // 转交 bulk 通道不占用 critical 通道的线程，排在后面的其他用户停用不受影响
+            other.get(5, TimeUnit.SECONDS);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private static EventLaneProperties.Lane lane(List<String> eventTypes, int concurrency, int queueCapacity, int priority) {
+        EventLaneProperties.Lane lane = new EventLaneProperties.Lane();
+        lane.setEventTypes(eventTypes);
+        lane.setConcurrency(concurrency);
+        lane.setQueueCapacity(queueCapacity);
+        lane.setPriority(priority);
+        return lane;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.eventbridge;
+
+import com.eventbridge.config.RabbitMQConfig;
+import com.eventbridge.query.application.eventhandlers.UserEventsHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * fast-startup（懒加载）下事件管道仍然在启动时就绪
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "fast-startup"})
+class FastStartupTest {
+
+    @Autowired
+    private RabbitListenerEndpointRegistry listenerEndpointRegistry;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void testEventConsumersAreCreatedEagerly() {
+        assertTrue(context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false));
+        // 监听容器只有在 @RabbitListener Bean 创建后才会注册
+        assertTrue(listenerEndpointRegistry.getListenerContainerIds().contains(RabbitMQConfig.USER_EVENTS_LISTENER_ID));
+        // 本地事务事件处理器同样需要在启动时创建
+        assertTrue(context.getBeanFactory().containsSingleton(
+                context.getBeanNamesForType(UserEventsHandler.class)[0]));
+    }
+}
@@ -0,0 +1,183 @@
+package com.eventbridge;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.common.jfr.JfrSettingsExporter;
+import com.eventbridge.config.RabbitMQConfig;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.infrastructure.events.ListenerConsumerAutoscaler;
+import com.eventbridge.query.infrastructure.events.RabbitMQEventsListener;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDispatchAndDedupHitAreRecorded() throws Exception {
+        EventProcessorRegistry registry = new EventProcessorRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        registry.registerProcessor("UserCreated", event -> calls.incrementAndGet());
+        DomainEvent created = new UserCreatedEvent("u1", "alice", "a@example.com", LocalDateTime.now());
+
+        Path file = tempDir.resolve("eventbridge.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("eventbridge.Dispatch").withThreshold(Duration.ZERO);
+            recording.enable("eventbridge.DedupHit");
+            recording.start();
+
+            registry.process("UserCreated", created);
+            // 第二次投递命中去重，处理器不再执行
+            registry.process("UserCreated", created);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertEquals(1, calls.get());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> created.getEventId().equals(e.getString("eventId")))
+                .toList();
+
+        RecordedEvent dispatch = events.stream()
+                .filter(e -> e.getEventType().getName().equals("eventbridge.Dispatch"))
+                .findFirst().orElseThrow();
+        assertEquals("UserCreated", dispatch.getString("eventType"));
+        assertEquals("u1", dispatch.getString("aggregateId"));
+        assertEquals("SUCCESS", dispatch.getString("outcome"));
+
+        RecordedEvent dedupHit = events.stream()
+                .filter(e -> e.getEventType().getName().equals("eventbridge.DedupHit"))
+                .findFirst().orElseThrow();
+        assertEquals("registry", dedupHit.getString("source"));
+    }
+
+    @Test
+    @DisabledInNativeImage
+    void testRedeliveryIsRecordedAsRetry() throws Exception {
+        EventProcessorRegistry registry = new EventProcessorRegistry();
+        registry.registerProcessor("UserCreated", event -> { });
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        RabbitMQEventsListener listener = new RabbitMQEventsListener(registry, objectMapper,
+                mock(ListenerConsumerAutoscaler.class), mock(ProjectionTracker.class), mock(PlatformTransactionManager.class));
+        DomainEvent created = new UserCreatedEvent("u2", "bob", "b@example.com", LocalDateTime.now());
+        Message message = MessageBuilder.withBody(objectMapper.writeValueAsBytes(created))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(RabbitMQConfig.EVENT_ID_HEADER, created.getEventId())
+                .setHeader(RabbitMQConfig.EVENT_TYPE_HEADER, "UserCreated")
+                .setHeader("x-delivery-count", 1)
+                .build();
+        message.getMessageProperties().setRedelivered(true);
+
+        Path file = tempDir.resolve("retry.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("eventbridge.Retry");
+            recording.start();
+
+            // 上一次处理未完成，broker 重新投递
+            listener.handleUserEvent(message, "user.usercreated");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordedEvent retry = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("eventbridge.Retry"))
+                .filter(e -> created.getEventId().equals(e.getString("eventId")))
+                .findFirst().orElseThrow();
+        assertEquals("redelivery", retry.getString("stage"));
+        assertEquals("UserCreated", retry.getString("eventType"));
+        assertEquals(2, retry.getInt("attempt"));
+    }
+
+    @Test
+    @DisabledInNativeImage
+    void testHandlerFailureIsRetriedAndRecorded() throws Exception {
+        EventProcessorRegistry registry = new EventProcessorRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        registry.registerProcessor("UserCreated", event -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("read model unavailable");
+            }
+        });
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        RabbitMQEventsListener listener = new RabbitMQEventsListener(registry, objectMapper,
+                mock(ListenerConsumerAutoscaler.class), mock(ProjectionTracker.class), mock(PlatformTransactionManager.class));
+        DomainEvent created = new UserCreatedEvent("u3", "carol", "c@example.com", LocalDateTime.now());
+        Message message = MessageBuilder.withBody(objectMapper.writeValueAsBytes(created))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(RabbitMQConfig.EVENT_ID_HEADER, created.getEventId())
+                .setHeader(RabbitMQConfig.EVENT_TYPE_HEADER, "UserCreated")
+                .build();
+        // 与监听容器的重试拦截器一样在同一线程上重试
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(3).fixedBackoff(1).build();
+
+        Path file = tempDir.resolve("listener-retry.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("eventbridge.Retry");
+            recording.start();
+
+            // 处理器第一次失败，消息不确认而是重试，第二次成功
+            retryTemplate.execute(context -> {
+                listener.handleUserEvent(message, "user.usercreated");
+                return null;
+            });
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertEquals(2, calls.get());
+        RecordedEvent retry = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("eventbridge.Retry"))
+                .filter(e -> created.getEventId().equals(e.getString("eventId")))
+                .findFirst().orElseThrow();
+        assertEquals("listener", retry.getString("stage"));
+        assertEquals(2, retry.getInt("attempt"));
+        assertEquals("read model unavailable", retry.getString("reason"));
+    }
+
+    @Test
+    void testSettingsAreExportedFromClasspath() throws Exception {
+        Path target = JfrSettingsExporter.export(tempDir.resolve("jfr/eventbridge.jfc"));
+
+        // 导出的文件可直接作为 JFR.start 的 settings 使用
+        Map<String, String> settings = Configuration.create(target).getSettings();
+        assertEquals("true", settings.get("eventbridge.Retry#enabled"));
+        assertEquals("1 ms", settings.get("eventbridge.Dispatch#threshold"));
+        // 再次导出内容不变时不重写
+        assertEquals(Files.getLastModifiedTime(target), Files.getLastModifiedTime(JfrSettingsExporter.export(target)));
+    }
+}
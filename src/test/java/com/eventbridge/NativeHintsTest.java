@@ -0,0 +1,45 @@
+package com.eventbridge;
+
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserDeactivatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+import com.eventbridge.command.domain.model.User;
+import com.eventbridge.config.DomainEventMixin;
+import com.eventbridge.config.NativeHintsConfig;
+import com.eventbridge.query.infrastructure.events.RabbitMQEventsListener;
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsTest {
+
+    @Test
+    void testEventEntityAndListenerHintsAreRegistered() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeHintsConfig.EventBridgeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (Class<?> eventClass : List.of(UserCreatedEvent.class, UserEmailUpdatedEvent.class, UserDeactivatedEvent.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(eventClass)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), eventClass.getName());
+        }
+        // @JsonCreator 构造器可被反射调用
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(UserCreatedEvent.class.getDeclaredConstructors()[0])
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DomainEventMixin.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserView.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(RabbitMQEventsListener.class.getMethod("handleUserEvent", Message.class, String.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("jfr/eventbridge.jfc").test(hints));
+    }
+}
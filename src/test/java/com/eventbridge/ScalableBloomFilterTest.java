@@ -0,0 +1,68 @@
+package com.eventbridge;
+
+import com.eventbridge.common.bloom.ScalableBloomFilter;
+import com.eventbridge.query.application.projection.ProjectedUserIds;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void testGrowsWithoutFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = UUID.randomUUID().toString();
+            filter.add(id);
+            added.add(id);
+        }
+
+        // 超过第一级容量后追加新级，已加入的元素始终判定为可能存在
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(added.stream().allMatch(filter::mightContain));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "误判次数过多: " + falsePositives);
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.02);
+        assertTrue(filter.memoryBytes() > 0);
+    }
+
+    @Test
+    @DisabledInNativeImage
+    void testDefiniteAbsenceSkipsLookup() {
+        UserViewRepository repository = mock(UserViewRepository.class);
+        when(repository.findAllUserIds()).thenReturn(List.of("existing"));
+        when(repository.existsById("existing")).thenReturn(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProjectedUserIds projectedUserIds = new ProjectedUserIds(repository, meterRegistry, true, 1000, 0.01);
+
+        // 加载完成前一律查询数据库
+        assertFalse(projectedUserIds.exists("new-user", repository::existsById));
+        verify(repository).existsById("new-user");
+
+        projectedUserIds.load();
+        assertTrue(projectedUserIds.exists("existing", repository::existsById));
+        assertFalse(projectedUserIds.exists("another-new-user", repository::existsById));
+        verify(repository, never()).existsById("another-new-user");
+
+        projectedUserIds.add("another-new-user");
+        assertFalse(projectedUserIds.exists("another-new-user", id -> false));
+        assertEquals(1.0, meterRegistry.get("eventbridge.projection.bloom.checks").tag("result", "absent").counter().count());
+        assertEquals(1.0, meterRegistry.get("eventbridge.projection.bloom.checks").tag("result", "false-positive").counter().count());
+        assertEquals(0.5, projectedUserIds.observedFalsePositiveRate(), 0.0001);
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventbridge;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TracingTest {
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Test
+    void testCommandAndProjectionShareOneTrace() throws Exception {
+        mockMvc.perform(post("/api/command/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"traceuser\",\"email\":\"trace@example.com\"}"))
+                .andExpect(status().isOk());
+
+        // 异步投影写库的 span 与命令、事件发布的 span 在同一条 trace 上
+        await().atMost(Duration.ofSeconds(15)).until(() -> find("eventbridge.projection.write user-created").isPresent());
+
+        SpanData command = find("eventbridge.command create-user").orElseThrow();
+        SpanData publish = find("eventbridge.event.publish user-created").orElseThrow();
+        SpanData projection = find("eventbridge.projection.write user-created").orElseThrow();
+        assertEquals(command.getTraceId(), publish.getTraceId());
+        assertEquals(command.getTraceId(), projection.getTraceId());
+    }
+
+    private Optional<SpanData> find(String name) {
+        return spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst();
+    }
+}
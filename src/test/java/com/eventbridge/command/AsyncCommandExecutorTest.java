@@ -0,0 +1,157 @@
+package com.eventbridge.command;
+
+import com.eventbridge.command.application.CommandThrottle;
+import com.eventbridge.command.application.async.AsyncCommandExecutor;
+import com.eventbridge.command.application.async.CommandRejectedException;
+import com.eventbridge.command.application.async.CommandStatus;
+import com.eventbridge.command.application.async.CommandType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledInNativeImage
+class AsyncCommandExecutorTest {
+
+    private AsyncCommandExecutor executor;
+    private CommandThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new CommandThrottle();
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "throttleLag", 100L);
+        ReflectionTestUtils.setField(throttle, "maxLag", 1000L);
+        ReflectionTestUtils.setField(throttle, "minRate", 5.0);
+        ReflectionTestUtils.setField(throttle, "maxWaitMs", 50L);
+        executor = new AsyncCommandExecutor(throttle);
+        ReflectionTestUtils.setField(executor, "workers", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+        ReflectionTestUtils.setField(executor, "maxDbLatencyMs", 100L);
+        ReflectionTestUtils.setField(executor, "statusTtlMs", 60000L);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testCommandCompletesWithResult() {
+        CommandStatus status = executor.submit(CommandType.CREATE_USER, () -> "user-1");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> status.getState() == CommandStatus.State.SUCCEEDED);
+        assertEquals("user-1", status.getResult());
+        assertSame(status, executor.getStatus(status.getCommandId()).orElseThrow());
+
+        CommandStatus failed = executor.submit(CommandType.UPDATE_EMAIL, () -> {
+            throw new RuntimeException("User not found");
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> failed.getState() == CommandStatus.State.FAILED);
+        assertEquals("User not found", failed.getError());
+    }
+
+    @Test
+    void testFullQueueIsRejectedPerType() {
+        CountDownLatch release = new CountDownLatch(1);
+        // 1 个执行中 + 2 个排队，占满 CREATE_USER 的队列
+        for (int i = 0; i < 3; i++) {
+            executor.submit(CommandType.CREATE_USER, () -> {
+                awaitQuietly(release);
+                return "ok";
+            });
+        }
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThrows(CommandRejectedException.class,
+                () -> executor.submit(CommandType.CREATE_USER, () -> "overflow")));
+
+        CommandRejectedException rejected = assertThrows(CommandRejectedException.class,
+                () -> executor.submit(CommandType.CREATE_USER, () -> "overflow"));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+
+        release.countDown();
+    }
+
+    @Test
+    void testHighDbLatencySheds() {
+        // 一次很慢的执行把延迟 EWMA 推高到阈值以上
+        executor.submit(CommandType.CREATE_USER, () -> {
+            sleepQuietly(200);
+            return "slow";
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> executor.getLatencyEwmaMs() > 100);
+
+        // 有命令执行中时拒绝新命令
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(CommandType.DEACTIVATE_USER, () -> {
+            awaitQuietly(release);
+            return "busy";
+        });
+        assertThrows(CommandRejectedException.class,
+                () -> executor.submit(CommandType.UPDATE_EMAIL, () -> "shed"));
+        release.countDown();
+
+        // 空闲后重新放行，由新的执行耗时修正 EWMA
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertNotNull(executor.submit(CommandType.UPDATE_EMAIL, () -> "probe")));
+    }
+
+    @Test
+    void testThrottledCommandIsRejectedAtAdmission() {
+        // 5/s 时第二个命令需等待 200ms，超过 max-wait，提交时即被拒绝而不是在工作线程上记为失败
+        throttle.update(2000, 0);
+        CommandStatus admitted = executor.submit(CommandType.CREATE_USER, () -> "user-1");
+        AtomicInteger executed = new AtomicInteger();
+        CommandRejectedException rejected = assertThrows(CommandRejectedException.class,
+                () -> executor.submit(CommandType.CREATE_USER, () -> {
+                    executed.incrementAndGet();
+                    return "throttled";
+                }));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> admitted.getState() == CommandStatus.State.SUCCEEDED);
+        assertEquals(0, executed.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRejectedEnqueueRefundsThrottleSlot() {
+        throttle.update(2000, 0);
+        // 关闭 DEACTIVATE_USER 的线程池：准入检查通过，入队时抛出 TaskRejectedException
+        ThreadPoolTaskExecutor deactivate = ((Map<CommandType, ThreadPoolTaskExecutor>)
+                ReflectionTestUtils.getField(executor, "executors")).get(CommandType.DEACTIVATE_USER);
+        deactivate.shutdown();
+        assertThrows(CommandRejectedException.class,
+                () -> executor.submit(CommandType.DEACTIVATE_USER, () -> "never"));
+
+        // 被拒绝的命令没有占用限流许可，下一个命令无需等待 200ms
+        CommandStatus admitted = executor.submit(CommandType.CREATE_USER, () -> "user-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> admitted.getState() == CommandStatus.State.SUCCEEDED);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
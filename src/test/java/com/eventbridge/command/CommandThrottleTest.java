@@ -0,0 +1,124 @@
+package com.eventbridge.command;
+
+import com.eventbridge.command.application.CommandThrottle;
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.async.AsyncCommandExecutor;
+import com.eventbridge.command.application.async.CommandRejectedException;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.command.web.UserCommandController;
+import com.eventbridge.common.observation.EventTracing;
+import io.micrometer.observation.ObservationRegistry;
+import com.eventbridge.query.application.projection.ProjectionLagMonitor;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class CommandThrottleTest {
+
+    private CommandThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new CommandThrottle();
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "throttleLag", 100L);
+        ReflectionTestUtils.setField(throttle, "maxLag", 1000L);
+        ReflectionTestUtils.setField(throttle, "drainRatio", 0.9);
+        ReflectionTestUtils.setField(throttle, "minRate", 5.0);
+        ReflectionTestUtils.setField(throttle, "maxWaitMs", 50L);
+    }
+
+    @Test
+    void testRateFollowsProjectionThroughput() {
+        throttle.update(50, 200);
+        assertFalse(throttle.isThrottling());
+
+        // 积压超过阈值：放行速率略低于投影吞吐
+        throttle.update(500, 200);
+        assertEquals(180, throttle.getAllowedRate(), 0.001);
+
+        // 投影停滞时不低于最小速率
+        throttle.update(500, 0);
+        assertEquals(5, throttle.getAllowedRate(), 0.001);
+
+        // 达到 max-lag 只放行最小速率
+        throttle.update(2000, 1000);
+        assertEquals(5, throttle.getAllowedRate(), 0.001);
+
+        throttle.update(10, 1000);
+        assertFalse(throttle.isThrottling());
+    }
+
+    @Test
+    void testCommandsArePacedAndRejectedBeyondMaxWait() {
+        throttle.update(500, 100 / 0.9);
+
+        // 100/s 即每 10ms 一个许可，max-wait 50ms 内的命令排队等待
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire();
+        }
+        assertTrue(System.nanoTime() - start >= 30_000_000L);
+
+        // 降到 5/s 后许可间隔 200ms，超过 max-wait，紧接着的命令被拒绝
+        throttle.update(2000, 100);
+        throttle.acquire();
+        CommandRejectedException e = assertThrows(CommandRejectedException.class, throttle::acquire);
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testThrottleIsAcquiredBeforeCommandTransaction() {
+        UserCommandService service = mock(UserCommandService.class);
+        ObjectProvider<AsyncCommandExecutor> noAsync = mock(ObjectProvider.class);
+        UserCommandController controller = new UserCommandController(service, noAsync, throttle,
+                new EventTracing(ObservationRegistry.NOOP));
+        UserCommandController.CreateUserRequest request = new UserCommandController.CreateUserRequest();
+        request.setUsername("throttled");
+        request.setEmail("throttled@example.com");
+
+        // 5/s 时第二个命令需等待 200ms，超过 max-wait，在进入事务性的命令服务之前就被拒绝
+        throttle.update(2000, 0);
+        controller.createUser(request);
+        assertThrows(CommandRejectedException.class, () -> controller.createUser(request));
+        verify(service, times(1)).handle(any(CreateUserCommand.class));
+    }
+
+    @Test
+    void testLagMonitorDrivesThrottleAndHealth() throws Exception {
+        EventStore eventStore = mock(EventStore.class);
+        ProjectionTracker tracker = mock(ProjectionTracker.class);
+        ProjectionLagMonitor monitor = new ProjectionLagMonitor(eventStore, tracker, throttle);
+        assertEquals(Status.UNKNOWN, monitor.health().getStatus());
+
+        when(eventStore.getHeadPosition()).thenReturn(50L);
+        when(tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS)).thenReturn(40L);
+        monitor.sample();
+        assertEquals(Status.UP, monitor.health().getStatus());
+
+        when(eventStore.getHeadPosition()).thenReturn(600L);
+        when(tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS)).thenReturn(60L);
+        Thread.sleep(20);
+        monitor.sample();
+        Health health = monitor.health();
+        assertEquals(ProjectionLagMonitor.THROTTLED, health.getStatus());
+        assertEquals(540L, health.getDetails().get("lag"));
+        assertTrue(throttle.isThrottling());
+
+        when(eventStore.getHeadPosition()).thenReturn(2000L);
+        monitor.sample();
+        assertEquals(Status.OUT_OF_SERVICE, monitor.health().getStatus());
+    }
+}
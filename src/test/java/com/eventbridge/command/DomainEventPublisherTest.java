@@ -0,0 +1,72 @@
+package com.eventbridge.command;
+
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.infrastructure.events.DomainEventPublisher;
+import com.eventbridge.command.infrastructure.events.EventEnvelopeBatcher;
+import com.eventbridge.command.infrastructure.events.EventSerializer;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.command.infrastructure.events.PublisherConfirmTracker;
+import com.eventbridge.common.observation.EventTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.amqp.core.Message;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class DomainEventPublisherTest {
+
+    private final PublisherConfirmTracker confirmTracker = mock(PublisherConfirmTracker.class);
+    private DomainEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        publisher = new DomainEventPublisher(mock(ApplicationEventPublisher.class), new EventSerializer(objectMapper),
+                mock(EventStore.class), confirmTracker, mock(EventEnvelopeBatcher.class), EventTracing.NOOP);
+        ReflectionTestUtils.setField(publisher, "messageQueueEnabled", true);
+        when(confirmTracker.send(anyString(), anyString(), anyString(), any(Message.class)))
+                .thenReturn(new CompletableFuture<>());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testMessageIsSentOnlyAfterCommit() {
+        publisher.publish(new UserCreatedEvent("user-1", "user1", "user1@example.com", LocalDateTime.now()));
+
+        // 事务内不发送
+        verify(confirmTracker, never()).send(anyString(), anyString(), anyString(), any(Message.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(confirmTracker).send(anyString(), anyString(), anyString(), any(Message.class));
+    }
+
+    @Test
+    void testRolledBackEventIsNotSent() {
+        publisher.publish(new UserCreatedEvent("user-2", "user2", "user2@example.com", LocalDateTime.now()));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verify(confirmTracker, never()).send(anyString(), anyString(), anyString(), any(Message.class));
+    }
+}
@@ -0,0 +1,107 @@
+package com.eventbridge.command;
+
+import com.eventbridge.command.infrastructure.persistence.UserRepository;
+import com.eventbridge.command.web.IdempotencyKeyFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testRetriesWithSameKeyCreateOneUser() throws Exception {
+        long before = userRepository.count();
+
+        MvcResult first = createUser("key-1", "idem1");
+        MvcResult retry = createUser("key-1", "idem1");
+
+        assertEquals(200, first.getResponse().getStatus());
+        assertEquals(200, retry.getResponse().getStatus());
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals("true", retry.getResponse().getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+        assertEquals(before + 1, userRepository.count());
+
+        // 不同的键正常执行
+        createUser("key-2", "idem2");
+        assertEquals(before + 2, userRepository.count());
+    }
+
+    @Test
+    void testConcurrentRetriesAreCollapsed() throws Exception {
+        long before = userRepository.count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> createUser("key-concurrent", "idemconcurrent")));
+            }
+            Set<String> bodies = new HashSet<>();
+            for (Future<MvcResult> result : results) {
+                assertEquals(200, result.get().getResponse().getStatus());
+                bodies.add(result.get().getResponse().getContentAsString());
+            }
+            assertEquals(1, bodies.size());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(before + 1, userRepository.count());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        MvcResult created = createUser("key-reuse", "idemreuse");
+        assertEquals(200, created.getResponse().getStatus());
+
+        MvcResult reused = mockMvc.perform(post("/api/command/users/some-user/deactivate")
+                        .header(IdempotencyKeyFilter.HEADER, "key-reuse"))
+                .andReturn();
+        assertEquals(422, reused.getResponse().getStatus());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() throws Exception {
+        long before = userRepository.count();
+        MvcResult created = createUser("key-body", "idembody");
+        assertEquals(200, created.getResponse().getStatus());
+
+        // 同一路径、同一个键，但请求体不同：不能回放旧响应
+        MvcResult reused = createUser("key-body", "idembodyother");
+        assertEquals(422, reused.getResponse().getStatus());
+        assertNull(reused.getResponse().getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+        assertEquals(before + 1, userRepository.count());
+    }
+
+    private MvcResult createUser(String key, String username) throws Exception {
+        return mockMvc.perform(post("/api/command/users")
+                        .header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\"}"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,95 @@
+package com.eventbridge.command;
+
+import com.eventbridge.command.infrastructure.events.PublisherConfirmTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class PublisherConfirmTrackerTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private PublisherConfirmTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        tracker = new PublisherConfirmTracker(rabbitTemplate);
+        ReflectionTestUtils.setField(tracker, "confirmWindow", 2);
+        ReflectionTestUtils.setField(tracker, "confirmTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(tracker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(tracker, "backpressureTimeoutMs", 50L);
+        tracker.init();
+    }
+
+    @Test
+    void testAckCompletesFuture() {
+        CompletableFuture<Void> future = tracker.send("e1", "ex", "user.created", message());
+
+        // broker 确认前 future 未完成
+        assertFalse(future.isDone());
+        assertEquals(1, tracker.getOutstandingCount());
+
+        lastCorrelation().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        assertTrue(future.isDone());
+        assertEquals(0, tracker.getOutstandingCount());
+    }
+
+    @Test
+    void testNackResendsUntilAck() {
+        CompletableFuture<Void> future = tracker.send("e1", "ex", "user.created", message());
+
+        // nack 后自动重发
+        lastCorrelation().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertFalse(future.isDone());
+
+        lastCorrelation().getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testFullWindowAppliesBackpressure() {
+        tracker.send("e1", "ex", "user.created", message());
+        tracker.send("e2", "ex", "user.created", message());
+
+        // 窗口已满，第三条消息等待超时
+        assertThrows(AmqpTimeoutException.class, () -> tracker.send("e3", "ex", "user.created", message()));
+
+        // 任一消息确认后窗口释放
+        allCorrelations().get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertDoesNotThrow(() -> tracker.send("e3", "ex", "user.created", message()));
+    }
+
+    private Message message() {
+        return MessageBuilder.withBody("{}".getBytes()).build();
+    }
+
+    private CorrelationData lastCorrelation() {
+        List<CorrelationData> all = allCorrelations();
+        return all.get(all.size() - 1);
+    }
+
+    private List<CorrelationData> allCorrelations() {
+        ArgumentCaptor<CorrelationData> captor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, atLeastOnce()).send(anyString(), anyString(), any(Message.class), captor.capture());
+        return captor.getAllValues();
+    }
+}
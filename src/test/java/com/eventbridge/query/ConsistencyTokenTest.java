@@ -0,0 +1,57 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.query.application.ConsistencyGate;
+import com.eventbridge.query.application.UserQueryService;
+import com.eventbridge.query.infrastructure.model.UserView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsistencyTokenTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private UserQueryService userQueryService;
+
+    @Autowired
+    private ConsistencyGate consistencyGate;
+
+    @Test
+    void testReadYourWrites() throws Exception {
+        // 创建用户并取得一致性令牌
+        ConsistencyToken.clear();
+        String userId = userCommandService.handle(new CreateUserCommand("tokenuser", "token@example.com"));
+        Long createToken = ConsistencyToken.take();
+        assertNotNull(createToken);
+
+        // 带令牌查询，无需轮询即可读到刚创建的用户
+        Optional<UserView> created = consistencyGate
+                .afterToken(createToken, () -> userQueryService.getUserById(userId))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(created.isPresent());
+
+        // 更新邮箱后，带新令牌读到的一定是新邮箱
+        userCommandService.handle(new UpdateUserEmailCommand(userId, "token2@example.com"));
+        Long updateToken = ConsistencyToken.take();
+        assertTrue(updateToken > createToken);
+
+        Optional<UserView> updated = consistencyGate
+                .afterToken(updateToken, () -> userQueryService.getUserById(userId))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("token2@example.com", updated.orElseThrow().getEmail());
+    }
+}
@@ -0,0 +1,55 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.InMemoryUserViewRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryUserViewRepositoryTest {
+
+    private final InMemoryUserViewRepository repository = new InMemoryUserViewRepository();
+
+    @Test
+    void testSaveAndFindByIdAndUsername() {
+        repository.save(new UserView("u1", "alice", "alice@example.com", LocalDateTime.now(), UserStatus.ACTIVE));
+
+        assertTrue(repository.existsById("u1"));
+        assertEquals("alice", repository.findById("u1").orElseThrow().getUsername());
+        assertEquals("u1", repository.findByUsername("alice").orElseThrow().getUserId());
+        assertTrue(repository.findByUsername("bob").isEmpty());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testStatusIndexFollowsDeactivation() {
+        repository.save(new UserView("u1", "alice", "alice@example.com", LocalDateTime.now(), UserStatus.ACTIVE));
+        repository.save(new UserView("u2", "bob", "bob@example.com", LocalDateTime.now(), UserStatus.ACTIVE));
+
+        // 与事件处理器的用法一致：读取副本、修改、重新保存
+        UserView bob = repository.findById("u2").orElseThrow();
+        bob.deactivate();
+        repository.save(bob);
+
+        List<UserView> active = repository.findByStatus(UserStatus.ACTIVE);
+        assertEquals(1, active.size());
+        assertEquals("u1", active.get(0).getUserId());
+        assertEquals(1, repository.findByStatus(UserStatus.INACTIVE).size());
+    }
+
+    @Test
+    void testReturnedViewsAreCopies() {
+        repository.save(new UserView("u1", "alice", "alice@example.com", LocalDateTime.now(), UserStatus.ACTIVE));
+
+        // 修改返回对象但不保存，不应影响存储
+        Optional<UserView> view = repository.findById("u1");
+        view.orElseThrow().updateEmail("changed@example.com");
+
+        assertEquals("alice@example.com", repository.findById("u1").orElseThrow().getEmail());
+    }
+}
@@ -0,0 +1,187 @@
+package com.eventbridge.query;
+
+import com.eventbridge.config.RabbitMQConfig;
+import com.eventbridge.query.infrastructure.events.ListenerConsumerAutoscaler;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class ListenerConsumerAutoscalerTest {
+
+    private SimpleMessageListenerContainer container;
+    private AmqpAdmin amqpAdmin;
+    private HikariPoolMXBean pool;
+    private ListenerConsumerAutoscaler autoscaler;
+
+    @BeforeEach
+    void setUp() {
+        container = mock(SimpleMessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(RabbitMQConfig.USER_EVENTS_LISTENER_ID)).thenReturn(container);
+        amqpAdmin = mock(AmqpAdmin.class);
+        pool = mock(HikariPoolMXBean.class);
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(dataSource.getMaximumPoolSize()).thenReturn(10);
+
+        autoscaler = new ListenerConsumerAutoscaler(registry, amqpAdmin, dataSource);
+        ReflectionTestUtils.setField(autoscaler, "enabled", true);
+        ReflectionTestUtils.setField(autoscaler, "minConsumers", 1);
+        ReflectionTestUtils.setField(autoscaler, "maxConsumers", 8);
+        ReflectionTestUtils.setField(autoscaler, "prefetch", 50);
+        ReflectionTestUtils.setField(autoscaler, "maxPrefetch", 250);
+        ReflectionTestUtils.setField(autoscaler, "messagesPerConsumer", 500L);
+        ReflectionTestUtils.setField(autoscaler, "maxLatencyMs", 200.0);
+        ReflectionTestUtils.setField(autoscaler, "maxPoolUtilization", 0.8);
+    }
+
+    @Test
+    void testBacklogGrowsConsumersUpToMax() {
+        queueDepth(10_000);
+
+        // 每个周期最多翻倍，直到 max-consumers
+        autoscaler.rebalance();
+        assertState(2, 250);
+        autoscaler.rebalance();
+        assertState(4, 250);
+        autoscaler.rebalance();
+        assertState(8, 250);
+        autoscaler.rebalance();
+        assertState(8, 250);
+
+        verify(container).setConcurrentConsumers(2);
+        verify(container).setConcurrentConsumers(4);
+        verify(container).setConcurrentConsumers(8);
+        verify(container, never()).setConcurrentConsumers(intThat(n -> n > 8));
+        assertEquals(10_000, autoscaler.getLastQueueDepth());
+    }
+
+    @Test
+    void testDrainedQueueShrinksToMinAndRestoresPrefetch() {
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        autoscaler.rebalance();
+        assertState(4, 250);
+
+        // 积压回落：逐个缩容，预取值恢复稳态
+        queueDepth(0);
+        autoscaler.rebalance();
+        assertState(3, 50);
+        autoscaler.rebalance();
+        autoscaler.rebalance();
+        assertState(1, 50);
+        autoscaler.rebalance();
+        assertState(1, 50);
+        verify(container, never()).setConcurrentConsumers(0);
+    }
+
+    @Test
+    void testSmallBacklogNearThresholdDoesNotShrink() {
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        autoscaler.rebalance();
+        assertState(4, 250);
+
+        // 积压低于扩容阈值但高于缩容余量：维持消费者数，只恢复预取值
+        queueDepth(1_000);
+        autoscaler.rebalance();
+        assertState(4, 50);
+    }
+
+    @Test
+    void testSlowProcessingShrinksDespiteBacklog() {
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        autoscaler.rebalance();
+        assertState(4, 250);
+
+        // 平均处理耗时超过 max-latency-ms：即使仍有积压也缩容，且不使用大预取值
+        autoscaler.recordProcessingTime(TimeUnit.MILLISECONDS.toNanos(500));
+        autoscaler.rebalance();
+        assertState(3, 50);
+
+        // 下一个周期没有新样本，耗时归零，恢复扩容
+        autoscaler.rebalance();
+        assertState(4, 250);
+    }
+
+    @Test
+    void testSaturatedPoolShrinksDespiteBacklog() {
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        assertState(2, 250);
+
+        when(pool.getActiveConnections()).thenReturn(9);
+        autoscaler.rebalance();
+        assertState(1, 50);
+
+        // 已在下限：不再缩容
+        autoscaler.rebalance();
+        assertState(1, 50);
+
+        when(pool.getActiveConnections()).thenReturn(2);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(1);
+        autoscaler.rebalance();
+        assertState(1, 50);
+    }
+
+    @Test
+    void testBrokerOutagePausesScalingUntilRecovered() {
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        assertState(2, 250);
+        clearInvocations(container);
+
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.USER_EVENTS_QUEUE))
+                .thenThrow(new AmqpConnectException(new ConnectException("connection refused")));
+        autoscaler.rebalance();
+        autoscaler.rebalance();
+        verify(container, never()).setConcurrentConsumers(anyInt());
+        verify(container, never()).setPrefetchCount(anyInt());
+        assertState(2, 250);
+
+        // broker 恢复后继续伸缩
+        reset(amqpAdmin);
+        queueDepth(2_000);
+        autoscaler.rebalance();
+        assertState(4, 250);
+    }
+
+    @Test
+    void testPartitionedModeLeavesContainerAlone() {
+        ReflectionTestUtils.setField(autoscaler, "partitioned", true);
+        queueDepth(10_000);
+
+        autoscaler.rebalance();
+
+        verifyNoInteractions(amqpAdmin);
+        verify(container, never()).setConcurrentConsumers(anyInt());
+        assertState(1, 50);
+    }
+
+    private void queueDepth(int depth) {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.USER_EVENTS_QUEUE))
+                .thenReturn(new QueueInformation(RabbitMQConfig.USER_EVENTS_QUEUE, depth, 1));
+    }
+
+    private void assertState(int consumers, int prefetch) {
+        assertEquals(consumers, autoscaler.getConsumers());
+        assertEquals(prefetch, autoscaler.getPrefetch());
+    }
+}
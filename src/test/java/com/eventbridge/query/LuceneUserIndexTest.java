@@ -0,0 +1,132 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.query.application.search.FullTextSearchHit;
+import com.eventbridge.query.application.search.FullTextSearchPage;
+import com.eventbridge.query.application.search.LuceneUserIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LuceneUserIndexTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private LuceneUserIndex luceneUserIndex;
+
+    @Test
+    void testTokenizedPrefixAndFuzzySearch() {
+        String userId = userCommandService.handle(new CreateUserCommand("jonathan_seagull", "jonathan.seagull@flight.io"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> ids(search("seagull", null)).contains(userId));
+
+        // 分词：用户名中的片段、邮箱域名都可检索
+        assertTrue(ids(search("flight", null)).contains(userId));
+        // 前缀：最后一个词按前缀匹配
+        assertTrue(ids(search("jonathan seag", null)).contains(userId));
+        // 模糊：拼写错误
+        assertTrue(ids(search("jonathon", null)).contains(userId));
+        assertTrue(ids(search("seagul flihgt", null)).contains(userId));
+        // 所有词都必须命中
+        assertFalse(ids(search("seagull pelican", null)).contains(userId));
+    }
+
+    @Test
+    void testEmailUpdateAndDeactivation() {
+        String userId = userCommandService.handle(new CreateUserCommand("fulltext_mover", "mover@oldhost.io"));
+        userCommandService.handle(new UpdateUserEmailCommand(userId, "mover@newhost.io"));
+        userCommandService.deactivateUser(userId);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> ids(search("newhost", UserStatus.INACTIVE)).contains(userId));
+        assertFalse(ids(search("oldhost", null)).contains(userId));
+        assertFalse(ids(search("fulltext_mover", UserStatus.ACTIVE)).contains(userId));
+
+        FullTextSearchHit hit = search("newhost", null).items().stream()
+                .filter(item -> item.userId().equals(userId)).findFirst().orElseThrow();
+        assertEquals("fulltext_mover", hit.username());
+        assertEquals("mover@newhost.io", hit.email());
+        assertEquals(UserStatus.INACTIVE, hit.status());
+    }
+
+    @Test
+    void testRebuildFromWriteModel() throws IOException {
+        String userId = userCommandService.handle(new CreateUserCommand("rebuild_target", "target@rebuild.io"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> ids(search("rebuild", null)).contains(userId));
+
+        int documents = luceneUserIndex.rebuild();
+        assertTrue(documents >= 1);
+        assertEquals(documents, luceneUserIndex.numDocs());
+        assertTrue(ids(search("rebuild", null)).contains(userId));
+    }
+
+    @Test
+    void testPagingLimits() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            userCommandService.handle(new CreateUserCommand("pagedfull" + i, "pagedfull" + i + "@paging.io"));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> search("paging", null).totalHits() == 3);
+
+        FullTextSearchPage first = luceneUserIndex.search("paging", null, 0, 2);
+        FullTextSearchPage second = luceneUserIndex.search("paging", null, 1, 2);
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasMore());
+        assertEquals(1, second.items().size());
+        assertFalse(second.hasMore());
+
+        assertThrows(IllegalArgumentException.class, () -> luceneUserIndex.search(" ", null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> luceneUserIndex.search("paging", null, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> luceneUserIndex.search("paging", null, 100, 100));
+    }
+
+    @Test
+    void testProjectionRunsAlongsidePrimaryProcessor() {
+        EventProcessorRegistry registry = new EventProcessorRegistry();
+        List<String> calls = new ArrayList<>();
+        registry.registerProcessor("UserCreated", event -> calls.add("primary"));
+        registry.registerProjection("failing", "UserCreated", event -> {
+            throw new IllegalStateException("boom");
+        });
+        registry.registerProjection("index", "UserCreated", event -> calls.add("index"));
+
+        DomainEvent event = new UserCreatedEvent("u-1", "alongside", "alongside@example.com", LocalDateTime.now());
+        registry.process("UserCreated", event);
+        registry.replay("UserCreated", event);
+
+        // 附加投影失败不影响主处理器和其他投影
+        assertEquals(List.of("primary", "index", "primary", "index"), calls);
+        assertEquals(Set.of("failing", "index"), registry.getProjectionNames("UserCreated"));
+    }
+
+    private FullTextSearchPage search(String query, UserStatus status) {
+        try {
+            return luceneUserIndex.search(query, status, 0, 50);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Set<String> ids(FullTextSearchPage page) {
+        return page.items().stream().map(FullTextSearchHit::userId).collect(Collectors.toSet());
+    }
+}
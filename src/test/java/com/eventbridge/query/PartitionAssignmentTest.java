@@ -0,0 +1,45 @@
+package com.eventbridge.query;
+
+import com.eventbridge.query.infrastructure.events.PartitionAssignmentManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionAssignmentTest {
+
+    private static final int PARTITIONS = 32;
+
+    @Test
+    void testEveryPartitionHasExactlyOneOwner() {
+        List<String> members = List.of("node-a", "node-b", "node-c");
+
+        Set<Integer> all = new HashSet<>();
+        int total = 0;
+        for (String member : members) {
+            Set<Integer> owned = PartitionAssignmentManager.assign(member, members, PARTITIONS);
+            total += owned.size();
+            all.addAll(owned);
+        }
+
+        // 分区不重不漏
+        assertEquals(PARTITIONS, total);
+        assertEquals(PARTITIONS, all.size());
+    }
+
+    @Test
+    void testOnlyPartitionsOfLeavingNodeMove() {
+        List<String> before = List.of("node-a", "node-b", "node-c");
+        List<String> after = List.of("node-a", "node-b");
+
+        // 节点离开后，其余节点原有的分区保持不变
+        for (String member : after) {
+            Set<Integer> ownedBefore = PartitionAssignmentManager.assign(member, before, PARTITIONS);
+            Set<Integer> ownedAfter = PartitionAssignmentManager.assign(member, after, PARTITIONS);
+            assertTrue(ownedAfter.containsAll(ownedBefore));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.query.application.projection.ProjectionCheckpointStore;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProjectionCheckpointTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private ProjectionTracker projectionTracker;
+
+    @Autowired
+    private ProjectionCheckpointStore checkpointStore;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Test
+    void testCheckpointFollowsProjection() {
+        userCommandService.handle(new CreateUserCommand("checkpointuser", "checkpoint@example.com"));
+        long head = eventStore.getHeadPosition();
+
+        // 等待投影进度追上事件日志
+        await().atMost(10, TimeUnit.SECONDS).until(() ->
+                projectionTracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS) >= head
+        );
+
+        // 检查点按批次或定时落盘，最终与投影进度一致
+        await().atMost(10, TimeUnit.SECONDS).until(() ->
+                checkpointStore.findPosition(ProjectionTracker.USER_VIEWS).orElse(0L) >= head
+        );
+        assertTrue(checkpointStore.getPersistedPosition(ProjectionTracker.USER_VIEWS) >= head);
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.command.domain.events.UserEmailUpdatedEvent;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.query.application.projection.ProjectionCheckpointStore;
+import com.eventbridge.query.application.projection.ProjectionReplayer;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class ProjectionReplayerTest {
+
+    private EventStore eventStore;
+    private EventProcessorRegistry registry;
+    private ProjectionTracker tracker;
+    private ProjectionReplayer replayer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = mock(EventStore.class);
+        registry = mock(EventProcessorRegistry.class);
+        tracker = new ProjectionTracker(eventStore, mock(ProjectionCheckpointStore.class));
+        meterRegistry = new SimpleMeterRegistry();
+        replayer = new ProjectionReplayer(eventStore, registry, tracker, mock(ProjectionCheckpointStore.class),
+                mock(PlatformTransactionManager.class), Runnable::run, meterRegistry);
+        ReflectionTestUtils.setField(replayer, "stallMaxReplays", 3);
+    }
+
+    @Test
+    void testUnappliableEventIsParkedAfterBackedOffReplays() {
+        // 位置 1 是缺失用户视图的邮箱更新，处理器从不标记它已应用；位置 2 正常应用
+        DomainEvent orphan = event(new UserEmailUpdatedEvent("missing-user", "x@example.com"), 1);
+        DomainEvent created = event(new UserCreatedEvent("user-2", "bob", "bob@example.com", LocalDateTime.now()), 2);
+        when(eventStore.getHeadPosition()).thenReturn(2L);
+        when(eventStore.readAfter(eq(0L), anyInt())).thenReturn(page(0, orphan, created));
+        when(eventStore.readAfter(eq(0L), eq(1))).thenReturn(page(0, orphan));
+        when(eventStore.readAfter(eq(1L), anyInt())).thenReturn(page(1, created));
+        when(eventStore.readAfter(eq(2L), anyInt())).thenReturn(page(2));
+        when(registry.replay(anyString(), any(DomainEvent.class))).thenAnswer(invocation -> {
+            DomainEvent event = invocation.getArgument(1);
+            if (event != orphan) {
+                tracker.markApplied(ProjectionTracker.USER_VIEWS, event);
+            }
+            return true;
+        });
+
+        // 第一次检查只记录水位线
+        replayer.recoverStalledProjection();
+        verify(registry, never()).replay(anyString(), any(DomainEvent.class));
+
+        // 回放间隔按检查周期翻倍：回放、回放、跳过 1 个周期、回放、跳过 3 个周期、搁置
+        int checks = 0;
+        while (replayer.getParkedEvents().isEmpty() && checks < 20) {
+            replayer.recoverStalledProjection();
+            checks++;
+        }
+        assertEquals(8, checks);
+        verify(registry, times(3)).replay(orphan.getEventType(), orphan);
+
+        List<ProjectionReplayer.ParkedEvent> parked = replayer.getParkedEvents();
+        assertEquals(1, parked.size());
+        assertEquals(1L, parked.get(0).position());
+        assertEquals(orphan.getEventId(), parked.get(0).eventId());
+        assertEquals(3, parked.get(0).replays());
+        assertEquals("回放 3 次仍无法应用", parked.get(0).reason());
+        assertEquals(1.0, meterRegistry.get("eventbridge.projection.parked").gauge().value());
+
+        // 水位线越过被搁置的事件，不再反复回放
+        assertEquals(2L, tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS));
+        replayer.recoverStalledProjection();
+        replayer.recoverStalledProjection();
+        verify(registry, times(3)).replay(orphan.getEventType(), orphan);
+    }
+
+    @Test
+    void testUndecodableRecordIsParkedWithoutEndingReplay() {
+        // 位置 1 无法解码，且独占一整页；位置 2 正常应用
+        DomainEvent created = event(new UserCreatedEvent("user-2", "bob", "bob@example.com", LocalDateTime.now()), 2);
+        EventStore.UndecodableEvent undecodable = new EventStore.UndecodableEvent(1, "evt-1", "UserRenamed", "user-1",
+                "未知的事件类型: UserRenamed");
+        when(eventStore.readAfter(eq(0L), anyInt()))
+                .thenReturn(new EventStore.EventPage(List.of(), List.of(undecodable), 1));
+        when(eventStore.readAfter(eq(1L), anyInt())).thenReturn(page(1, created));
+        when(eventStore.readAfter(eq(2L), anyInt())).thenReturn(page(2));
+        when(registry.replay(anyString(), any(DomainEvent.class))).thenAnswer(invocation -> {
+            tracker.markApplied(ProjectionTracker.USER_VIEWS, invocation.getArgument(1));
+            return true;
+        });
+
+        assertEquals(1, replayer.replayFrom(0));
+
+        verify(registry).replay(created.getEventType(), created);
+        assertEquals(2L, tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS));
+        List<ProjectionReplayer.ParkedEvent> parked = replayer.getParkedEvents();
+        assertEquals(1, parked.size());
+        assertEquals(1L, parked.get(0).position());
+        assertEquals("UserRenamed", parked.get(0).eventType());
+        assertEquals(0, parked.get(0).replays());
+        assertTrue(parked.get(0).reason().startsWith("无法解码"));
+    }
+
+    private static EventStore.EventPage page(long from, DomainEvent... events) {
+        long last = events.length == 0 ? from : events[events.length - 1].getPosition();
+        return new EventStore.EventPage(List.of(events), List.of(), last);
+    }
+
+    private static DomainEvent event(UserEmailUpdatedEvent event, long position) {
+        event.setPosition(position);
+        return event;
+    }
+
+    private static DomainEvent event(UserCreatedEvent event, long position) {
+        event.setPosition(position);
+        return event;
+    }
+}
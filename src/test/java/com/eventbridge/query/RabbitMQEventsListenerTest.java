@@ -0,0 +1,180 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.domain.events.DomainEvent;
+import com.eventbridge.command.domain.events.UserCreatedEvent;
+import com.eventbridge.common.event.EventLaneProperties;
+import com.eventbridge.common.event.EventLanes;
+import com.eventbridge.common.event.EventProcessorRegistry;
+import com.eventbridge.common.observation.EventTracing;
+import com.eventbridge.config.RabbitMQConfig;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.infrastructure.events.ListenerConsumerAutoscaler;
+import com.eventbridge.query.infrastructure.events.RabbitMQEventsListener;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import com.rabbitmq.client.Channel;
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+class RabbitMQEventsListenerTest {
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+    private final List<DomainEvent> processed = new CopyOnWriteArrayList<>();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ListenerConsumerAutoscaler consumerAutoscaler = mock(ListenerConsumerAutoscaler.class);
+    private RabbitMQEventsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        EventProcessorRegistry registry = new EventProcessorRegistry();
+        registry.registerProcessor("UserCreated", processed::add);
+        listener = listener(registry);
+    }
+
+    @Test
+    void testRedeliveryIsSkippedBeforeDecoding() throws Exception {
+        UserCreatedEvent event = new UserCreatedEvent("user-1", "user1", "user1@example.com", LocalDateTime.now());
+        Message message = message(objectMapper.writeValueAsString(event), event.getEventId(), "UserCreated");
+
+        listener.handleUserEvent(message, "user.usercreated");
+        listener.handleUserEvent(message, "user.usercreated");
+
+        // 重复投递只看消息头就被跳过，消息体只解析了一次
+        assertEquals(1, processed.size());
+        verify(objectMapper, times(1)).readValue(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void testUnhandledTypeIsNotDecoded() throws Exception {
+        listener.handleUserEvent(message("{ not json", "order-1", "OrderCreated"), "order.created");
+
+        assertTrue(processed.isEmpty());
+        verify(objectMapper, never()).readValue(anyString(), any(Class.class));
+    }
+
+    @Test
+    void testMessageIsProcessedInTransactionOnLaneBeforeReturning() throws Exception {
+        EventLaneProperties properties = new EventLaneProperties();
+        EventLanes lanes = new EventLanes(properties, new SimpleMeterRegistry());
+        lanes.init();
+        try {
+            EventProcessorRegistry registry = new EventProcessorRegistry(EventTracing.NOOP, lanes);
+            List<String> threads = new CopyOnWriteArrayList<>();
+            registry.registerProcessor("UserCreated", event -> {
+                sleepQuietly(50);
+                threads.add(Thread.currentThread().getName());
+                processed.add(event);
+            });
+            UserCreatedEvent event = new UserCreatedEvent("user-2", "user2", "user2@example.com", LocalDateTime.now());
+
+            listener(registry).handleUserEvent(message(objectMapper.writeValueAsString(event), event.getEventId(), "UserCreated"),
+                    "user.usercreated");
+
+            // 返回（确认消息）时事件已在通道线程的读模型事务内处理完成，处理耗时计入自动扩缩容
+            assertEquals(1, processed.size());
+            assertTrue(threads.get(0).startsWith("Lane-"));
+            verify(transactionManager).getTransaction(any());
+            verify(transactionManager).commit(any());
+            ArgumentCaptor<Long> elapsed = ArgumentCaptor.forClass(Long.class);
+            verify(consumerAutoscaler).recordProcessingTime(elapsed.capture());
+            assertTrue(elapsed.getValue() >= TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            lanes.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedCommitIsNotAcknowledged() throws Exception {
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        UserCreatedEvent event = new UserCreatedEvent("user-3", "user3", "user3@example.com", LocalDateTime.now());
+        Message message = message(objectMapper.writeValueAsString(event), event.getEventId(), "UserCreated");
+
+        // 异常抛给监听容器，消息不会被确认
+        assertThrows(CompletionException.class, () -> listener.handleUserEvent(message, "user.usercreated"));
+    }
+
+    @Test
+    void testRepeatedFailureIsDeadLetteredAfterBoundedRetries() throws Exception {
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        UserCreatedEvent event = new UserCreatedEvent("user-4", "user4", "user4@example.com", LocalDateTime.now());
+        Message message = message(objectMapper.writeValueAsString(event), event.getEventId(), "UserCreated");
+
+        // 与监听容器一样，用容器工厂的重试拦截器包住监听方法
+        SimpleRabbitListenerContainerFactory factory = new RabbitMQConfig().rabbitListenerContainerFactory(
+                mock(ConnectionFactory.class), mock(Jackson2JsonMessageConverter.class), 1, 50, 3, 1, 1);
+        ProxyFactory proxyFactory = new ProxyFactory((ContainerDelegate) (channel, data) ->
+                listener.handleUserEvent((Message) data, "user.usercreated"));
+        proxyFactory.addInterface(ContainerDelegate.class);
+        for (Advice advice : factory.getAdviceChain()) {
+            proxyFactory.addAdvice(advice);
+        }
+        ContainerDelegate delegate = (ContainerDelegate) proxyFactory.getProxy();
+
+        // 重试 max-attempts 次后拒绝且不重新入队，由死信交换机转入死信队列
+        Exception rejected = assertThrows(Exception.class, () -> delegate.invoke(mock(Channel.class), message));
+        assertInstanceOf(AmqpRejectAndDontRequeueException.class, rejected.getCause());
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(RabbitMQConfig.USER_EVENTS_DEAD_LETTER_EXCHANGE,
+                new RabbitMQConfig().userEventsQueue().getArguments().get("x-dead-letter-exchange"));
+    }
+
+    interface ContainerDelegate {
+        void invoke(Channel channel, Object data);
+    }
+
+    private RabbitMQEventsListener listener(EventProcessorRegistry registry) {
+        return new RabbitMQEventsListener(registry, objectMapper, consumerAutoscaler,
+                mock(ProjectionTracker.class), transactionManager);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Message message(String body, String eventId, String eventType) {
+        return MessageBuilder.withBody(body.getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setHeader(RabbitMQConfig.EVENT_ID_HEADER, eventId)
+                .setHeader(RabbitMQConfig.EVENT_TYPE_HEADER, eventType)
+                .build();
+    }
+}
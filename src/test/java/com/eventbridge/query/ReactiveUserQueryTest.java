@@ -0,0 +1,56 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.common.event.ConsistencyToken;
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.web.ReactiveUserQueryController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReactiveUserQueryTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private ReactiveUserQueryController reactiveUserQueryController;
+
+    @Test
+    void testReactiveQueriesReadTheProjectedViews() {
+        ConsistencyToken.clear();
+        String userId = userCommandService.handle(new CreateUserCommand("reactiveuser", "reactive@example.com"));
+        Long token = ConsistencyToken.take();
+
+        // 带令牌查询：等待投影追上后经 R2DBC 读取同一张 user_views 表
+        UserView user = reactiveUserQueryController.getUser(userId, token).block(Duration.ofSeconds(5));
+        assertNotNull(user);
+        assertEquals("reactive@example.com", user.getEmail());
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+
+        UserView byName = reactiveUserQueryController.getUserByUsername("reactiveuser", null).block(Duration.ofSeconds(5));
+        assertEquals(userId, byName.getUserId());
+
+        userCommandService.deactivateUser(userId);
+        Long deactivateToken = ConsistencyToken.take();
+
+        List<UserView> all = reactiveUserQueryController.getAllUsers(deactivateToken)
+                .collectList().block(Duration.ofSeconds(5));
+        assertTrue(all.stream().anyMatch(view -> userId.equals(view.getUserId())
+                && view.getStatus() == UserStatus.INACTIVE));
+
+        List<UserView> active = reactiveUserQueryController.getActiveUsers(deactivateToken)
+                .collectList().block(Duration.ofSeconds(5));
+        assertTrue(active.stream().noneMatch(view -> userId.equals(view.getUserId())));
+    }
+}
@@ -0,0 +1,91 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.query.application.search.UserSearchHit;
+import com.eventbridge.query.application.search.UserSearchIndex;
+import com.eventbridge.query.application.search.UserSearchPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserSearchIndexTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Test
+    void testPrefixAndSubstringSearch() {
+        String alice = userCommandService.handle(new CreateUserCommand("SrchAlice", "alice@srch-one.io"));
+        String bob = userCommandService.handle(new CreateUserCommand("srchbob", "bob@srch-two.io"));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> userSearchIndex.search("srch", UserSearchIndex.Mode.PREFIX, 0, 10).items().size() == 2);
+
+        // 前缀匹配不区分大小写，按名称排序
+        UserSearchPage prefix = userSearchIndex.search("SRCH", UserSearchIndex.Mode.PREFIX, 0, 10);
+        assertEquals(alice, prefix.items().get(0).userId());
+        assertEquals(bob, prefix.items().get(1).userId());
+        assertFalse(prefix.hasMore());
+
+        // 子串可命中用户名中间或邮箱域名
+        assertEquals(Set.of(alice), ids(userSearchIndex.search("halic", UserSearchIndex.Mode.SUBSTRING, 0, 10)));
+        assertEquals(Set.of(bob), ids(userSearchIndex.search("srch-two", UserSearchIndex.Mode.SUBSTRING, 0, 10)));
+        // 不足 3 个字符的子串，包括位于文本末尾的片段
+        assertTrue(ids(userSearchIndex.search("ob", UserSearchIndex.Mode.SUBSTRING, 0, 50)).contains(bob));
+        assertTrue(userSearchIndex.search("srchalice@", UserSearchIndex.Mode.SUBSTRING, 0, 10).items().isEmpty());
+    }
+
+    @Test
+    void testEmailUpdateReplacesOldEntries() {
+        String userId = userCommandService.handle(new CreateUserCommand("idxmover", "old@idx-before.io"));
+        userCommandService.handle(new UpdateUserEmailCommand(userId, "new@idx-after.io"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                ids(userSearchIndex.search("idx-after", UserSearchIndex.Mode.SUBSTRING, 0, 10)).contains(userId));
+        assertTrue(userSearchIndex.search("idx-before", UserSearchIndex.Mode.SUBSTRING, 0, 10).items().isEmpty());
+        assertTrue(userSearchIndex.search("old@", UserSearchIndex.Mode.PREFIX, 0, 10).items().isEmpty());
+    }
+
+    @Test
+    void testPagination() {
+        for (int i = 0; i < 5; i++) {
+            userCommandService.handle(new CreateUserCommand("pager" + i, "pager" + i + "@page.io"));
+        }
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> userSearchIndex.search("pager", UserSearchIndex.Mode.PREFIX, 0, 10).items().size() == 5);
+
+        UserSearchPage first = userSearchIndex.search("pager", UserSearchIndex.Mode.PREFIX, 0, 2);
+        UserSearchPage last = userSearchIndex.search("pager", UserSearchIndex.Mode.PREFIX, 2, 2);
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasMore());
+        assertEquals(1, last.items().size());
+        assertFalse(last.hasMore());
+        assertEquals("pager4", last.items().get(0).username());
+
+        assertThrows(IllegalArgumentException.class, () -> userSearchIndex.validate("pager", "fuzzy", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> userSearchIndex.validate("pager", "prefix", 0, 1000));
+        assertEquals(UserSearchIndex.Mode.PREFIX, userSearchIndex.validate("pager", "Prefix", 0, 10));
+    }
+
+    private static Set<String> ids(UserSearchPage page) {
+        Set<String> ids = new HashSet<>();
+        for (UserSearchHit hit : page.items()) {
+            ids.add(hit.userId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,53 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.application.UserCommandService;
+import com.eventbridge.command.application.commands.CreateUserCommand;
+import com.eventbridge.command.application.commands.UpdateUserEmailCommand;
+import com.eventbridge.query.application.changefeed.UserViewChange;
+import com.eventbridge.query.application.changefeed.UserViewChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserViewChangeFeedTest {
+
+    @Autowired
+    private UserCommandService userCommandService;
+
+    @Autowired
+    private UserViewChangeFeed changeFeed;
+
+    @Test
+    void testChangesAreReadableInPositionOrder() {
+        long from = changeFeed.getLatestPosition();
+
+        String userId = userCommandService.handle(new CreateUserCommand("feeduser", "feed@example.com"));
+        userCommandService.handle(new UpdateUserEmailCommand(userId, "feed2@example.com"));
+
+        // 从记录的位置续读，能按顺序拿到创建和邮箱更新两条变更
+        await().atMost(Duration.ofSeconds(5)).until(() -> changeFeed.readAfter(from, 100).stream()
+                .filter(change -> userId.equals(change.view().getUserId()))
+                .count() == 2);
+
+        List<UserViewChange> changes = changeFeed.readAfter(from, 100).stream()
+                .filter(change -> userId.equals(change.view().getUserId()))
+                .toList();
+        assertEquals(UserViewChange.Type.CREATED, changes.get(0).type());
+        assertEquals(UserViewChange.Type.EMAIL_UPDATED, changes.get(1).type());
+        assertEquals("feed2@example.com", changes.get(1).view().getEmail());
+        assertTrue(changes.get(0).position() < changes.get(1).position());
+
+        // 从第一条变更之后续读，不会再读到它
+        assertTrue(changeFeed.readAfter(changes.get(0).position(), 100).stream()
+                .noneMatch(change -> change.position() == changes.get(0).position()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.config.QueryDataSourceConfig;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserViewInsertTest {
+
+    @Autowired
+    private UserViewRepository userViewRepository;
+
+    @Autowired
+    @Qualifier("queryEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier(QueryDataSourceConfig.TRANSACTION_MANAGER)
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void testNewViewIsInsertedWithoutSelect() {
+        UserView created = new UserView("insert-new", "insertnew", "new@example.com", LocalDateTime.now(), UserStatus.ACTIVE);
+        created.markNew();
+        // 创建路径：只有 INSERT，没有 merge 前的 SELECT
+        assertEquals(1, statementsFor(created));
+
+        UserView merged = new UserView("insert-merge", "insertmerge", "merge@example.com", LocalDateTime.now(), UserStatus.ACTIVE);
+        // 未标记为新建：merge 先 SELECT 再 INSERT
+        assertEquals(2, statementsFor(merged));
+
+        UserView loaded = userViewRepository.findById("insert-new").orElseThrow();
+        assertFalse(loaded.isNew());
+        assertEquals("new@example.com", loaded.getEmail());
+    }
+
+    private long statementsFor(UserView view) {
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userViewRepository.save(view));
+        return statistics.getPrepareStatementCount();
+    }
+}
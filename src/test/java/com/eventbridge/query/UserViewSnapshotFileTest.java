@@ -0,0 +1,97 @@
+package com.eventbridge.query;
+
+import com.eventbridge.command.domain.model.UserStatus;
+import com.eventbridge.command.infrastructure.events.EventStore;
+import com.eventbridge.query.application.projection.ProjectionCheckpointStore;
+import com.eventbridge.query.application.projection.ProjectionTracker;
+import com.eventbridge.query.application.projection.UserViewSnapshotter;
+import com.eventbridge.query.infrastructure.model.UserView;
+import com.eventbridge.query.infrastructure.persistence.UserViewRepository;
+import com.eventbridge.query.infrastructure.snapshot.UserViewSnapshotFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserViewSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndReadRoundTrip() throws IOException {
+        Path path = tempDir.resolve("user-views.snapshot");
+        UserView active = new UserView("u1", "alice", "alice@example.com", LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6), UserStatus.ACTIVE);
+        UserView inactive = new UserView("u2", "鲍勃", "bob@example.com", null, UserStatus.INACTIVE);
+
+        UserViewSnapshotFile.write(path, 42L, List.of(active, inactive));
+        UserViewSnapshotFile.Snapshot snapshot = UserViewSnapshotFile.read(path);
+
+        assertEquals(42L, snapshot.position());
+        assertEquals(2, snapshot.views().size());
+
+        UserView first = snapshot.views().get(0);
+        assertEquals("u1", first.getUserId());
+        assertEquals("alice@example.com", first.getEmail());
+        assertEquals(active.getCreatedAt(), first.getCreatedAt());
+        assertEquals(UserStatus.ACTIVE, first.getStatus());
+
+        UserView second = snapshot.views().get(1);
+        assertEquals("鲍勃", second.getUsername());
+        assertNull(second.getCreatedAt());
+        assertEquals(UserStatus.INACTIVE, second.getStatus());
+    }
+
+    @Test
+    void testCorruptedSnapshotIsRejected() throws IOException {
+        Path path = tempDir.resolve("user-views.snapshot");
+        UserViewSnapshotFile.write(path, 7L, List.of(
+                new UserView("u1", "alice", "alice@example.com", LocalDateTime.now(), UserStatus.ACTIVE)));
+
+        // 篡改一个字节，校验和应当失败
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[30] ^= 0x7F;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> UserViewSnapshotFile.read(path));
+    }
+
+    @Test
+    @DisabledInNativeImage
+    void testSnapshotAheadOfEventLogIsDiscarded() throws IOException {
+        Path path = tempDir.resolve("user-views.snapshot");
+        UserViewSnapshotFile.write(path, 42L, List.of(
+                new UserView("u1", "alice", "alice@example.com", LocalDateTime.now(), UserStatus.ACTIVE)));
+
+        // 事件日志随内存命令库重置，最新位置落后于快照：快照不能恢复
+        UserViewRepository repository = mock(UserViewRepository.class);
+        EventStore eventStore = mock(EventStore.class);
+        ProjectionTracker tracker = new ProjectionTracker(eventStore, mock(ProjectionCheckpointStore.class));
+        UserViewSnapshotter snapshotter = new UserViewSnapshotter(repository, tracker, eventStore,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(snapshotter, "enabled", true);
+        ReflectionTestUtils.setField(snapshotter, "path", path.toString());
+
+        when(eventStore.getHeadPosition()).thenReturn(3L);
+        snapshotter.restore();
+        assertEquals(0L, tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS));
+        assertEquals(-1L, snapshotter.getLastSnapshotPosition());
+        verify(repository, never()).save(any());
+
+        when(eventStore.getHeadPosition()).thenReturn(50L);
+        snapshotter.restore();
+        assertEquals(42L, tracker.getLastAppliedPosition(ProjectionTracker.USER_VIEWS));
+        verify(repository).save(any());
+    }
+}